@@ -0,0 +1,81 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Uma geração completa do MotorGeracional (elite, reprodução e avaliação),
+ * por tamanho de instância e número de threads do pool.
+ *
+ * Cada iteração recomeça da mesma população inicial, com o cache de fitness
+ * vazio: sem isso as últimas iterações mediriam uma população convergida e
+ * um cache quente, e os números derivariam de uma iteração para a outra.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGeracao {
+
+    @Param({ "150", "1000", "5000" })
+    public int disciplinas;
+
+    @Param({ "1000", "10000", "100000" })
+    public int alunos;
+
+    @Param({ "1", "4", "8" })
+    public int threads;
+
+    private AlgoritmoGenetico base;
+    private List<Cromossomo> populacaoInicial;
+    private MotorGeracional motor;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        base = ConfiguracaoBenchmark.criar(disciplinas, alunos, threads);
+        populacaoInicial = base.gerarPopulacao();
+    }
+
+    @Setup(Level.Iteration)
+    public void recomecar() {
+        // Mesmo problema e mesmo pool; cache novo (null) e cópias da população inicial
+        AlgoritmoGenetico algoritmo = new AlgoritmoGenetico(base.configuracao, base.problema, null, base.executor,
+                threads, System.out);
+        List<Cromossomo> populacao = new ArrayList<>(populacaoInicial.size());
+        for (Cromossomo cromossomo : populacaoInicial) {
+            populacao.add(new Cromossomo(cromossomo));
+        }
+        motor = new MotorGeracional(algoritmo, populacao, algoritmo.executor, new SplittableRandom(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        base.executor.shutdown();
+    }
+
+    @Benchmark
+    public double evoluirPopulacao() {
+        motor.evoluirPopulacao();
+        return motor.getMelhor().getFitness();
+    }
+}
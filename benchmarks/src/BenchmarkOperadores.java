@@ -0,0 +1,106 @@
+package src;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Operadores do algoritmo genético medidos isoladamente, por tamanho de
+ * instância. Use {@code -prof gc} para ver a taxa de alocação de cada um.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkOperadores {
+    private static final int TAMANHO_AMOSTRA = 64;
+
+    @Param({ "150", "1000", "5000" })
+    public int disciplinas;
+
+    @Param({ "1000", "10000", "100000" })
+    public int alunos;
+
+    private AlgoritmoGenetico algoritmo;
+    private Cromossomo[] populacao;
+    private Cromossomo filho;
+    private SplittableRandom rng;
+    private AvaliadorLote avaliadorLote;
+    private double[] fitnessLote;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        algoritmo = ConfiguracaoBenchmark.criar(disciplinas, alunos, 1);
+        rng = new SplittableRandom(42);
+        populacao = algoritmo.gerarPopulacao(TAMANHO_AMOSTRA).toArray(new Cromossomo[0]);
+        for (Cromossomo cromossomo : populacao) {
+            algoritmo.avaliar(cromossomo);
+        }
+        filho = new Cromossomo(new long[algoritmo.problema.numDisciplinas]);
+        avaliadorLote = new AvaliadorLote(algoritmo);
+        fitnessLote = new double[TAMANHO_AMOSTRA];
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        algoritmo.executor.shutdown();
+    }
+
+    private Cromossomo sortear() {
+        return populacao[rng.nextInt(populacao.length)];
+    }
+
+    @Benchmark
+    public double calcularFitness() {
+        return algoritmo.calcularFitness(sortear());
+    }
+
+    /** Mesma conta de {@link #calcularFitness()}, para a amostra inteira em lote. */
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_AMOSTRA)
+    public double avaliarLote() {
+        avaliadorLote.calcular(populacao, TAMANHO_AMOSTRA, fitnessLote);
+        return fitnessLote[0];
+    }
+
+    @Benchmark
+    public long cruzar() {
+        algoritmo.cruzar(sortear(), sortear(), filho, rng);
+        return filho.getHash();
+    }
+
+    @Benchmark
+    public long fazerMutacao() {
+        filho.copiarDe(sortear());
+        algoritmo.fazerMutacao(filho, rng);
+        return filho.getHash();
+    }
+
+    @Benchmark
+    public double selecionarPorTorneio() {
+        return algoritmo.selecionarPorTorneio(populacao, rng).getFitness();
+    }
+
+    @Benchmark
+    public long gerarCromossomoAleatorio() {
+        return algoritmo.gerarCromossomoAleatorio(rng).getHash();
+    }
+}
@@ -0,0 +1,26 @@
+package src;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Monta a execução medida com o tamanho de problema pedido. As chaves valem
+ * sobre config.properties e -D, então cada combinação de parâmetros do JMH
+ * mede exatamente a instância declarada.
+ */
+final class ConfiguracaoBenchmark {
+
+    private ConfiguracaoBenchmark() {
+    }
+
+    static AlgoritmoGenetico criar(int disciplinas, int alunos, int threads) {
+        // Professores e salas crescem na mesma proporção da instância padrão (150/30/20)
+        Configuracao configuracao = Configuracao.padrao().com(Map.of(
+                "num_disciplinas", Integer.toString(disciplinas),
+                "num_alunos", Integer.toString(alunos),
+                "num_professores", Integer.toString(Math.max(30, disciplinas / 5)),
+                "num_salas", Integer.toString(Math.max(20, disciplinas * 2 / 15)),
+                "semente", "42"));
+        return new AlgoritmoGenetico(configuracao, new ForkJoinPool(threads), threads, System.out);
+    }
+}
@@ -0,0 +1,316 @@
+package src;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Ajuste de hiperparâmetros por successive halving. Cada combinação da grade
+ * ({@code ajuste_grade}) roda com {@code ajuste_sementes} sementes; todas as
+ * execuções rodam ao mesmo tempo na mesma JVM, uma tarefa sequencial do pool
+ * por execução, dividindo só o problema, que é somente leitura. O cache de
+ * fitness é de cada execução: compartilhado, a avaliação de uma população
+ * inicial igual (mesma semente) seria cobrada só de quem chegasse primeiro.
+ *
+ * A cada rodada as execuções das configurações ainda vivas continuam de onde
+ * pararam até o orçamento de gerações da rodada; só a melhor fração
+ * (1 / {@code ajuste_eta}) segue, com um orçamento {@code ajuste_eta} vezes
+ * maior, até sobrar uma configuração ou chegar a {@code geracoes}. Vence quem
+ * alcança o {@code fitness_alvo} em todas as sementes com menos tempo de CPU;
+ * sem alvo (ou sem quem o alcance), o maior fitness médio.
+ *
+ * As curvas de fitness por tempo de CPU de cada execução podem ser gravadas
+ * em CSV ({@code ajuste_curvas}) para comparar as configurações.
+ */
+final class AjusteHiperparametros {
+    private static final PrintStream SEM_SAIDA = new PrintStream(OutputStream.nullOutputStream());
+
+    // Chaves que a execução do ajuste (motor geracional sobre o problema compartilhado) de fato usa
+    private static final Set<String> CHAVES_AJUSTAVEIS = Set.of("populacao", "taxa_mutacao", "taxa_cruzamento",
+            "elite_size", "tournament_size", "proporcao_semeada", "tentativas_semeadura", "busca_local",
+            "passos_busca_local", "suprimir_duplicatas", "compartilhamento_fitness", "raio_nicho",
+            "operadores_adaptativos", "avaliacao_lote");
+
+    private final Configuracao configuracao;
+    private final ForkJoinPool pool;
+    private final PrintStream saida;
+    private final Problema problema;
+    private final long sementeBase;
+    private final double fitnessAlvo;
+    private final int numSementes;
+    private final int eta;
+    private final int geracoesIniciais;
+    private final int geracoesMaximas;
+    private final String arquivoCurvas;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    /**
+     * @param base execução já carregada, de onde vêm o problema, a semente e
+     *             o fitness alvo compartilhados por todas as execuções, e a
+     *             saída em que o progresso do ajuste é exibido
+     */
+    AjusteHiperparametros(AlgoritmoGenetico base) {
+        this.configuracao = base.configuracao;
+        this.pool = base.executor;
+        this.saida = base.saida;
+        this.problema = base.problema;
+        this.sementeBase = base.semente;
+        this.fitnessAlvo = base.fitnessAlvo;
+        this.numSementes = Math.max(1, configuracao.lerInt("ajuste_sementes", 3));
+        this.eta = Math.max(2, configuracao.lerInt("ajuste_eta", 3));
+        this.geracoesMaximas = base.geracoes;
+        this.geracoesIniciais = Math.max(1, Math.min(geracoesMaximas, configuracao.lerInt("ajuste_geracoes_iniciais", 20)));
+        this.arquivoCurvas = configuracao.lerTexto("ajuste_curvas", null);
+    }
+
+    // ----- GRADE -----
+
+    /**
+     * "chave=v1,v2;chave2=v3,v4" → o produto cartesiano, cada combinação como
+     * chaves que valem sobre a configuração (ex.: taxa_mutacao=0.05,0.35;elite_size=10,50).
+     * Só aceita as chaves que a execução do ajuste usa: uma chave ignorada
+     * (ilhas, modos, dados do problema) faria configurações iguais parecerem
+     * diferentes e apareceria na linha da vencedora.
+     */
+    static List<Map<String, String>> lerGrade(String grade) {
+        List<Map<String, String>> combinacoes = new ArrayList<>();
+        combinacoes.add(new LinkedHashMap<>());
+        for (String eixo : grade.split(";")) {
+            if (eixo.isBlank()) {
+                continue;
+            }
+            int igual = eixo.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("eixo da grade sem '=': " + eixo.trim());
+            }
+            String chave = eixo.substring(0, igual).trim();
+            if (!CHAVES_AJUSTAVEIS.contains(chave)) {
+                throw new IllegalArgumentException("chave não ajustável na grade: " + chave + " (use uma de "
+                        + CHAVES_AJUSTAVEIS.stream().sorted().collect(Collectors.joining(", ")) + ")");
+            }
+            List<Map<String, String>> expandidas = new ArrayList<>();
+            for (Map<String, String> combinacao : combinacoes) {
+                for (String valor : eixo.substring(igual + 1).split(",")) {
+                    Map<String, String> nova = new LinkedHashMap<>(combinacao);
+                    nova.put(chave, valor.trim());
+                    expandidas.add(nova);
+                }
+            }
+            combinacoes = expandidas;
+        }
+        return combinacoes;
+    }
+
+    // ----- SUCCESSIVE HALVING -----
+
+    /** Roda o ajuste sobre a grade e devolve as configurações da melhor para a pior. */
+    List<Candidata> executar(List<Map<String, String>> grade) {
+        List<Candidata> candidatas = new ArrayList<>(grade.size());
+        for (Map<String, String> chaves : grade) {
+            candidatas.add(new Candidata(chaves));
+        }
+        saida.printf("🎛️ Ajuste: %d configurações × %d sementes, successive halving (eta %d) de %d a %d gerações%s%n",
+                candidatas.size(), numSementes, eta, geracoesIniciais, geracoesMaximas,
+                fitnessAlvo <= 1.0 ? String.format(", alvo %.2f", fitnessAlvo) : ", sem fitness alvo");
+
+        List<Candidata> vivas = new ArrayList<>(candidatas);
+        int orcamento = geracoesIniciais;
+        for (int rodada = 1;; rodada++) {
+            long inicio = System.nanoTime();
+            avancar(vivas, orcamento);
+            for (Candidata candidata : vivas) {
+                candidata.rodadas = rodada;
+            }
+            vivas.sort(ORDEM);
+            saida.printf("%n🎛️ Rodada %d: %d configurações até a geração %d (%.2f s)%n",
+                    rodada, vivas.size(), orcamento, (System.nanoTime() - inicio) / 1e9);
+            for (int i = 0; i < vivas.size(); i++) {
+                saida.printf("  %2d. %s%n", i + 1, vivas.get(i).resumo());
+            }
+            if (vivas.size() == 1 || orcamento >= geracoesMaximas) {
+                break;
+            }
+            vivas = new ArrayList<>(vivas.subList(0, (vivas.size() + eta - 1) / eta));
+            orcamento = (int) Math.min(geracoesMaximas, (long) orcamento * eta);
+        }
+
+        // Eliminadas ficam atrás das que chegaram mais longe, na ordem da última rodada de cada uma
+        candidatas.sort(Comparator.comparingInt((Candidata c) -> -c.rodadas).thenComparing(ORDEM));
+        Candidata melhor = candidatas.get(0);
+        saida.printf("%n🏁 Melhor configuração: %s%n", melhor.resumo());
+        saida.printf("   Para usar: %s%n", melhor.chaves.entrySet().stream()
+                .map(chave -> "-D" + chave.getKey() + "=" + chave.getValue())
+                .collect(Collectors.joining(" ")));
+        if (arquivoCurvas != null) {
+            gravarCurvas(candidatas);
+        }
+        return candidatas;
+    }
+
+    /** Leva todas as execuções das candidatas até a geração dada, em paralelo. */
+    private void avancar(List<Candidata> candidatas, int ate) {
+        List<ForkJoinTask<?>> tarefas = new ArrayList<>();
+        for (Candidata candidata : candidatas) {
+            for (Execucao execucao : candidata.execucoes) {
+                tarefas.add(pool.submit(() -> execucao.avancar(ate)));
+            }
+        }
+        for (ForkJoinTask<?> tarefa : tarefas) {
+            tarefa.join();
+        }
+    }
+
+    private void gravarCurvas(List<Candidata> candidatas) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(arquivoCurvas), StandardCharsets.UTF_8))) {
+            writer.println("configuracao,semente,geracao,cpu_segundos,melhor_fitness");
+            for (Candidata candidata : candidatas) {
+                String nome = "\"" + candidata.nome() + "\"";
+                for (Execucao execucao : candidata.execucoes) {
+                    for (int g = 0; g < execucao.tamanhoCurva; g++) {
+                        writer.println(String.format(Locale.ROOT, "%s,%d,%d,%.4f,%.6f", nome, execucao.semente, g,
+                                execucao.cpuPorGeracao[g] / 1e9, execucao.melhorPorGeracao[g]));
+                    }
+                }
+            }
+            saida.printf("📈 Curvas de fitness por tempo de CPU salvas em '%s'%n", arquivoCurvas);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar as curvas do ajuste: " + e.getMessage());
+        }
+    }
+
+    /** Alvo alcançado em mais sementes, depois menos CPU até o alvo, depois maior fitness médio. */
+    private static final Comparator<Candidata> ORDEM = Comparator
+            .comparingInt((Candidata c) -> -c.alcancaramAlvo())
+            .thenComparingDouble(Candidata::cpuMedioAteAlvo)
+            .thenComparingDouble(c -> -c.fitnessMedio())
+            .thenComparingDouble(Candidata::cpuMedio);
+
+    // ----- CANDIDATAS E EXECUÇÕES -----
+
+    /** Uma combinação da grade e as suas execuções, uma por semente. */
+    final class Candidata {
+        final Map<String, String> chaves;
+        final List<Execucao> execucoes = new ArrayList<>();
+        int rodadas; // Rodadas de que participou antes de ser eliminada
+
+        Candidata(Map<String, String> chaves) {
+            this.chaves = chaves;
+            for (int i = 0; i < numSementes; i++) {
+                execucoes.add(new Execucao(chaves, sementeBase + i));
+            }
+        }
+
+        String nome() {
+            return chaves.entrySet().stream().map(chave -> chave.getKey() + "=" + chave.getValue())
+                    .collect(Collectors.joining(" "));
+        }
+
+        int alcancaramAlvo() {
+            return (int) execucoes.stream().filter(execucao -> execucao.cpuAteAlvo >= 0).count();
+        }
+
+        /** Média do tempo de CPU até o alvo; infinito se alguma semente ainda não o alcançou. */
+        double cpuMedioAteAlvo() {
+            return alcancaramAlvo() < execucoes.size() ? Double.POSITIVE_INFINITY
+                    : execucoes.stream().mapToLong(execucao -> execucao.cpuAteAlvo).average().orElse(0) / 1e9;
+        }
+
+        double fitnessMedio() {
+            return execucoes.stream().mapToDouble(execucao -> execucao.melhor).average().orElse(0);
+        }
+
+        double cpuMedio() {
+            return execucoes.stream().mapToLong(execucao -> execucao.cpuNanos).average().orElse(0) / 1e9;
+        }
+
+        String resumo() {
+            String alvo = fitnessAlvo > 1.0 ? ""
+                    : alcancaramAlvo() == execucoes.size()
+                            ? String.format(" | alvo %d/%d em %.2f s de CPU", alcancaramAlvo(), execucoes.size(), cpuMedioAteAlvo())
+                            : String.format(" | alvo %d/%d", alcancaramAlvo(), execucoes.size());
+            return String.format("%s | melhor %.4f | %.2f s de CPU%s", nome(), fitnessMedio(), cpuMedio(), alvo);
+        }
+    }
+
+    /**
+     * Uma execução (configuração e semente) que avança por rodadas. O motor é
+     * criado na primeira rodada, dentro da tarefa do pool, e roda sem pool
+     * próprio: cada execução ocupa uma única thread por vez, o que também
+     * torna exato o tempo de CPU medido.
+     */
+    final class Execucao {
+        final long semente;
+        private final Configuracao configuracaoExecucao;
+        private MotorGeracional motor;
+        int geracoes;
+        double melhor;
+        long cpuNanos;
+        long cpuAteAlvo = -1;
+
+        // Curva: CPU acumulada e melhor fitness ao fim de cada geração
+        long[] cpuPorGeracao = new long[0];
+        double[] melhorPorGeracao = new double[0];
+        int tamanhoCurva;
+
+        Execucao(Map<String, String> chaves, long semente) {
+            this.semente = semente;
+            Map<String, String> propria = new LinkedHashMap<>(chaves);
+            propria.put("semente", Long.toString(semente));
+            this.configuracaoExecucao = configuracao.com(propria);
+        }
+
+        void avancar(int ate) {
+            long inicio = cpuDaThread();
+            if (motor == null) {
+                AlgoritmoGenetico algoritmo = new AlgoritmoGenetico(configuracaoExecucao, problema, null, pool, 1,
+                        SEM_SAIDA);
+                motor = new MotorGeracional(algoritmo, algoritmo.gerarPopulacao(), null, algoritmo.rngMestre.split());
+            }
+            while (geracoes < ate && cpuAteAlvo < 0) {
+                motor.evoluirPopulacao();
+                melhor = Math.max(melhor, motor.getMelhor().getFitness());
+                long agora = cpuDaThread();
+                cpuNanos += agora - inicio;
+                inicio = agora;
+                registrar(cpuNanos, melhor);
+                geracoes++;
+                if (melhor >= fitnessAlvo) {
+                    cpuAteAlvo = cpuNanos;
+                }
+            }
+        }
+
+        private void registrar(long cpu, double fitness) {
+            if (tamanhoCurva == cpuPorGeracao.length) {
+                int novo = Math.max(16, tamanhoCurva * 2);
+                cpuPorGeracao = Arrays.copyOf(cpuPorGeracao, novo);
+                melhorPorGeracao = Arrays.copyOf(melhorPorGeracao, novo);
+            }
+            cpuPorGeracao[tamanhoCurva] = cpu;
+            melhorPorGeracao[tamanhoCurva] = fitness;
+            tamanhoCurva++;
+        }
+    }
+
+    /** Tempo de CPU da thread atual; tempo de relógio se a JVM não o medir. */
+    private long cpuDaThread() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
@@ -1,442 +1,1110 @@
 package src;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
 import java.util.stream.Collectors;
 
 /**
  * Algoritmo Genético para Agendamento Universitário
- * 
+ *
  * PARA 150 DISCIPLINAS:
  * - Paralelização usando threads
  * - Algoritmos de fitness
  * - Cache de resultados
  * - Elitismo adaptativo
+ *
+ * Cada instância é uma execução: o problema, a configuração, o cache de
+ * fitness e os avaliadores por thread são dela, então várias execuções podem
+ * rodar na mesma JVM dividindo o mesmo pool ({@link ServicoAgendamento}).
  */
 public class AlgoritmoGenetico {
 
+    // ----- CONFIGURAÇÃO EXTERNA -----
+    // Chaves lidas de config.properties; -Dchave=valor na linha de comando tem prioridade
+    final Configuracao configuracao;
+    final PrintStream saida; // Progresso da execução (System.out na linha de comando)
+
     // ----- CONFIGURAÇÕES -----
-    static final int POPULACAO = 500; // Maior população para maior diversidade
-    static final int GERACOES = 200; // Mais gerações para convergência
-    static final double TAXA_MUTACAO = 0.35;
-    static final double TAXA_CRUZAMENTO = 0.85; // Taxa maior para exploração
-    static final int ELITE_SIZE = 50; // Número de melhores preservados
-    static final int TOURNAMENT_SIZE = 5; // Tamanho do torneio para seleção
-
-    // Configurações do problema
-    static final int NUM_DISCIPLINAS = 150;
-    static final int NUM_PROFESSORES = 30;
-    static final int NUM_SALAS = 20;
-    static final int NUM_HORARIOS = 50;
-    static final int NUM_ALUNOS = 1000;
+    // populacao, geracoes, taxa_mutacao, taxa_cruzamento, elite_size e tournament_size
+    final int populacao; // Maior população para maior diversidade
+    final int geracoes; // Mais gerações para convergência
+    final double taxaMutacao;
+    final double taxaCruzamento; // Taxa maior para exploração
+    final int tamanhoElite; // Número de melhores preservados
+    final int tamanhoTorneio; // Tamanho do torneio para seleção
+
+    // ----- ALEATORIEDADE -----
+    // Uma semente mestre gera, por split(), um fluxo independente para cada tarefa.
+    // Com a mesma semente e o mesmo número de threads a execução é reproduzível.
+    final long semente;
+    final SplittableRandom rngMestre;
+
+    // ----- INSTÂNCIA -----
+    // instancia = arquivo .ctt (ITC-2007) ou .csv; vazio = dados sintéticos com as
+    // dimensões num_disciplinas, num_professores, ... de config.properties
+    final String arquivoInstancia;
+    final Problema problema;
 
     // ---------- PARALELIZAÇÃO ----------
-    static final int NUM_THREADS = Runtime.getRuntime().availableProcessors();
-    static final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+    // O pool pode ser compartilhado com outras execuções; paralelismo é a cota de
+    // núcleos desta: nunca há mais blocos de trabalho dela do que isso ao mesmo tempo
+    final ForkJoinPool executor;
+    final int paralelismo;
+
+    // ----- POPULAÇÃO INICIAL -----
+    // Fração da população gerada pela semeadura construtiva (o resto é aleatório)
+    final double proporcaoSemeada;
+    final int tentativasSemeadura;
+
+    // ----- BUSCA LOCAL (MEMÉTICO) -----
+    // true = a elite passa por até passos_busca_local movimentos de reparo por geração
+    final boolean buscaLocal;
+    final int passosBuscaLocal;
+
+    // ----- CRITÉRIOS DE PARADA -----
+    // Além de geracoes: fitness alvo (> 1 desativa), estagnação e prazo (0 desativa)
+    final double fitnessAlvo;
+    final int geracoesSemMelhoria;
+    final double tempoLimiteSegundos;
+
+    // Melhor solução até agora, legível por outras threads enquanto a busca continua
+    final MelhorSolucao melhorAteAgora = new MelhorSolucao();
+
+    // ----- MODELO DE ILHAS -----
+    // ilhas <= 1 mantém a população única; a população total é dividida entre as ilhas
+    final int numIlhas;
+    final int intervaloMigracao;
+    final int migrantes;
+    final ModeloIlhas.Topologia topologiaMigracao;
+
+    // ----- ILHAS EM VÁRIOS PROCESSOS -----
+    // distribuido = coordenador | ilha (vazio = processo único). Todos os processos
+    // precisam da mesma instância: mesma semente e mesmos dados
+    final String papelDistribuido;
+    final String enderecoCoordenador;
+    final int ilhasRemotas;
+
+    // ----- ESTADO ESTACIONÁRIO -----
+    // true = MotorEstacionario (sem barreira entre gerações) em vez do motor geracional
+    final boolean estadoEstacionario;
+
+    // ----- DIVERSIDADE -----
+    // suprimir_duplicatas = filhos com genótipo já presente na nova população são mutados de novo
+    // antes da avaliação; compartilhamento_fitness = torneio pelo fitness dividido pelo tamanho do
+    // nicho (indivíduos a menos de raio_nicho de distância de genes, entre 0 e 1)
+    final boolean suprimirDuplicatas;
+    final boolean compartilhamentoFitness;
+    final double raioNicho;
+
+    // ----- MULTIOBJETIVO -----
+    // true = NSGA-II com alojamento, distribuição e conflitos como objetivos separados.
+    // frente_pareto = CSV da frente final; frente_pareto_cronogramas = pasta com um cronograma por solução
+    final boolean multiobjetivo;
+    final String arquivoFrentePareto;
+    final String pastaCronogramasPareto;
+
+    // ----- REPROGRAMAÇÃO -----
+    // solucao_anterior = cronograma (texto ou binário) de uma execução anterior, ponto de partida
+    // da busca; cada aula mudada em relação a ele custa penalidade_mudanca (0 = mudanças livres).
+    // solucao_binaria = também grava a melhor solução na forma binária
+    final String arquivoSolucaoAnterior;
+    final int geracoesReprogramacao;
+    final String arquivoSolucaoBinaria;
+
+    // ----- CHECKPOINT -----
+    // checkpoint vazio desativa; retomar=true continua do checkpoint, se ele existir
+    final String arquivoCheckpoint;
+    final int intervaloCheckpoint;
+    final boolean retomar;
+
+    // ----- TELEMETRIA -----
+    // Arquivo JSONL com uma linha de métricas por geração (vazio = só eventos JFR)
+    final String arquivoMetricas;
+
+    // ----- AVALIAÇÃO -----
+    // true = filhos avaliados em lote (AvaliadorLote); false = um a um pelo AvaliadorIncremental
+    final boolean avaliacaoEmLote;
 
     // ----- CACHE -----
-    static final Map<String, Double> fitnessCache = new ConcurrentHashMap<>();
-    static final Random random = ThreadLocalRandom.current();
+    static final int TAMANHO_CACHE = 1 << 17; // Entradas; o cache nunca passa disso
+    final CacheFitness fitnessCache;
 
-    // ----- DADOS -----
-    static String[] nomesDisciplinas;
-    static String[] nomesProfessores;
-    static boolean[][] disponibilidadeProfessor;
-    static int[][] disciplinasPorProfessor;
-    static int[] capacidadeSalas;
-    static List<Set<Integer>> alunosPorDisciplina;
+    // ----- FUNÇÃO DE FITNESS -----
+    // Cada thread reaproveita o seu avaliador; carregar um cromossomo é a avaliação completa
+    final ThreadLocal<AvaliadorIncremental> avaliadorPorThread;
+    final ThreadLocal<AvaliadorLote> avaliadorLotePorThread;
+    final ThreadLocal<BuscaLocal> buscaLocalPorThread;
+
+    // ----- OPERADORES -----
+    // operadores_adaptativos = um ControladorOperadores por motor geracional escolhe cruzamento e
+    // mutação a cada filho; sem ele valem o ponto único e mover_aula, com as taxas fixas acima
+    final boolean operadoresAdaptativos;
+    final Operadores.Mutacao moverAula;
+
+    /**
+     * Prepara uma execução: lê a configuração e carrega (ou gera) a instância.
+     *
+     * @param executor    pool onde a evolução roda, possivelmente compartilhado
+     * @param paralelismo núcleos que esta execução pode ocupar no pool
+     * @param saida       destino das mensagens de progresso
+     */
+    AlgoritmoGenetico(Configuracao configuracao, ForkJoinPool executor, int paralelismo, PrintStream saida) {
+        this(configuracao, null, null, executor, paralelismo, saida);
+    }
+
+    /**
+     * Execução sobre um problema já carregado, sem reler a instância: várias
+     * execuções do mesmo problema (o ajuste de hiperparâmetros) dividem os
+     * dados, que são somente leitura, e podem dividir o cache de fitness, que
+     * só depende do genótipo.
+     *
+     * @param problema problema compartilhado, ou null para carregar o da configuração
+     * @param cache    cache de fitness compartilhado, ou null para um próprio
+     */
+    AlgoritmoGenetico(Configuracao configuracao, Problema problema, CacheFitness cache, ForkJoinPool executor,
+            int paralelismo, PrintStream saida) {
+        this.configuracao = configuracao;
+        this.saida = saida;
+        this.executor = executor;
+        this.paralelismo = Math.max(1, paralelismo);
+
+        this.populacao = configuracao.lerInt("populacao", 500);
+        this.geracoes = configuracao.lerInt("geracoes", 200);
+        this.taxaMutacao = configuracao.lerDouble("taxa_mutacao", 0.35);
+        this.taxaCruzamento = configuracao.lerDouble("taxa_cruzamento", 0.85);
+        this.tamanhoElite = configuracao.lerInt("elite_size", 50);
+        this.tamanhoTorneio = configuracao.lerInt("tournament_size", 5);
+
+        this.semente = configuracao.lerLong("semente", System.nanoTime());
+        this.rngMestre = new SplittableRandom(semente);
+
+        this.arquivoInstancia = configuracao.lerTexto("instancia", null);
+        this.proporcaoSemeada = configuracao.lerDouble("proporcao_semeada", 0.0);
+        this.tentativasSemeadura = configuracao.lerInt("tentativas_semeadura", 20);
+        this.buscaLocal = configuracao.lerBooleano("busca_local", false);
+        this.passosBuscaLocal = configuracao.lerInt("passos_busca_local", 30);
+        this.fitnessAlvo = configuracao.lerDouble("fitness_alvo", 2.0);
+        this.geracoesSemMelhoria = configuracao.lerInt("geracoes_sem_melhoria", 0);
+        this.tempoLimiteSegundos = configuracao.lerDouble("tempo_limite_segundos", 0);
+        this.numIlhas = configuracao.lerInt("ilhas", 1);
+        this.intervaloMigracao = configuracao.lerInt("intervalo_migracao", 10);
+        this.migrantes = configuracao.lerInt("migrantes", 2);
+        this.topologiaMigracao = ModeloIlhas.Topologia.de(configuracao.lerTexto("topologia_migracao", "anel"));
+        this.papelDistribuido = configuracao.lerTexto("distribuido", "");
+        this.enderecoCoordenador = configuracao.lerTexto("coordenador", "localhost:" + ProtocoloIlhas.PORTA_PADRAO);
+        this.ilhasRemotas = configuracao.lerInt("ilhas_remotas", 2);
+        this.estadoEstacionario = configuracao.lerBooleano("estado_estacionario", false);
+        this.suprimirDuplicatas = configuracao.lerBooleano("suprimir_duplicatas", false);
+        this.compartilhamentoFitness = configuracao.lerBooleano("compartilhamento_fitness", false);
+        this.raioNicho = configuracao.lerDouble("raio_nicho", 0.05);
+        this.multiobjetivo = configuracao.lerBooleano("multiobjetivo", false);
+        String frentePareto = configuracao.ler("frente_pareto"); // Vazio = só exibida
+        this.arquivoFrentePareto = frentePareto == null ? "frente_pareto.csv"
+                : frentePareto.isBlank() ? null : frentePareto.trim();
+        this.pastaCronogramasPareto = configuracao.lerTexto("frente_pareto_cronogramas", null);
+        this.arquivoSolucaoAnterior = configuracao.lerTexto("solucao_anterior", null);
+        this.geracoesReprogramacao = configuracao.lerInt("geracoes_reprogramacao", 50);
+        this.arquivoSolucaoBinaria = configuracao.lerTexto("solucao_binaria", null);
+        this.arquivoCheckpoint = configuracao.lerTexto("checkpoint", null);
+        this.intervaloCheckpoint = configuracao.lerInt("intervalo_checkpoint", 50);
+        this.retomar = configuracao.lerBooleano("retomar", false);
+        this.arquivoMetricas = configuracao.lerTexto("metricas", null);
+        this.avaliacaoEmLote = configuracao.lerBooleano("avaliacao_lote", false);
+
+        // ----- DADOS -----
+        this.problema = problema != null ? problema : carregarProblema();
+        this.fitnessCache = cache != null ? cache : new CacheFitness(TAMANHO_CACHE);
+
+        this.avaliadorPorThread = ThreadLocal.withInitial(() -> new AvaliadorIncremental(this.problema));
+        this.avaliadorLotePorThread = ThreadLocal.withInitial(() -> new AvaliadorLote(this));
+        this.buscaLocalPorThread = ThreadLocal.withInitial(() -> new BuscaLocal(this));
+        this.operadoresAdaptativos = configuracao.lerBooleano("operadores_adaptativos", false);
+        this.moverAula = new Operadores.MoverAula(this);
+    }
 
     // ----- ALGORITMO PRINCIPAL -----
     public static void main(String[] args) {
         long startTime = System.currentTimeMillis();
 
-        System.out.println("🎓 ALGORITMO GENÉTICO - AGENDAMENTO UNIVERSITÁRIO");
-        System.out.println("Versão para 150 Disciplinas");
-        System.out.println("=========================================================");
+        Configuracao configuracao = Configuracao.padrao();
+        int numThreads = configuracao.lerInt("num_threads", Runtime.getRuntime().availableProcessors());
+        ForkJoinPool executor = new ForkJoinPool(numThreads);
+
+        // Com porta_servico a JVM vira um serviço de trabalhos em vez de resolver uma instância
+        String portaServico = configuracao.lerTexto("porta_servico", null);
+        if (portaServico != null) {
+            try {
+                new ServicoAgendamento(configuracao, executor).iniciar(Integer.parseInt(portaServico));
+            } catch (IOException e) {
+                executor.shutdown();
+                throw new IllegalStateException("Não foi possível iniciar o serviço na porta " + portaServico + ": "
+                        + e.getMessage(), e);
+            }
+            return;
+        }
 
-        try {
-            // Gerar população inicial
-            List<Cromossomo> populacao = gerarPopulacao();
+        // Com ajuste_grade a JVM compara configurações em vez de produzir um cronograma
+        String grade = configuracao.lerTexto("ajuste_grade", null);
+        List<Map<String, String>> combinacoes = grade != null ? AjusteHiperparametros.lerGrade(grade) : null;
 
-            // Evolução
-            for (int geracao = 0; geracao < GERACOES; geracao++) {
-                populacao = evoluirPopulacao(populacao);
+        AlgoritmoGenetico algoritmo = new AlgoritmoGenetico(configuracao, executor, numThreads, System.out);
 
-                if (geracao % 10 == 0 || geracao == GERACOES - 1) {
-                    double melhorFitness = populacao.get(0).getFitness();
-                    double piorFitness = populacao.get(populacao.size() - 1).getFitness();
-                    double diversidadeDoFitness = melhorFitness - piorFitness;
-                    System.out.printf("Geração %3d - Melhor: %.2f | Pior: %.2f | Diversidade do Fitness: %.2f%n", geracao, melhorFitness, piorFitness, diversidadeDoFitness);
-                }
+        if (combinacoes != null) {
+            try {
+                new AjusteHiperparametros(algoritmo).executar(combinacoes);
+            } finally {
+                executor.shutdown();
             }
+            return;
+        }
 
-            // Resultado final
-            Cromossomo melhor = populacao.get(0);
+        System.out.println("🎓 ALGORITMO GENÉTICO - AGENDAMENTO UNIVERSITÁRIO");
+        System.out.printf("Versão para %d Disciplinas%n", algoritmo.problema.numDisciplinas);
+        System.out.println("=========================================================");
+        System.out.printf("🎲 Semente: %d (use -Dsemente=%d para repetir esta execução)%n", algoritmo.semente,
+                algoritmo.semente);
+
+        CriterioParada criterio = algoritmo.criarCriterio();
+
+        // Se a JVM for encerrada no meio da busca (Ctrl+C, fim da janela), salva a melhor até agora
+        Thread salvarAoEncerrar = new Thread(() -> {
+            Cromossomo parcial = algoritmo.melhorAteAgora.obter();
+            if (parcial != null) {
+                System.out.printf("%n⏹️ Busca interrompida: salvando a melhor solução até agora (fitness %.2f)%n",
+                        parcial.getFitness());
+                algoritmo.salvarCronograma(parcial);
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(salvarAoEncerrar);
+
+        try {
+            Cromossomo melhor = algoritmo.executar(criterio);
+            Runtime.getRuntime().removeShutdownHook(salvarAoEncerrar);
             long endTime = System.currentTimeMillis();
 
+            System.out.printf("%n⏹️ Parada: %s%n", criterio.getMotivo());
             System.out.println("\n🏆 MELHOR SOLUÇÃO ENCONTRADA:");
             System.out.printf("Fitness: %.2f%n", melhor.getFitness());
             System.out.printf("Tempo de execução: %.2f segundos%n", (endTime - startTime) / 1000.0);
             System.out.printf("Disciplinas alocadas: %d/%d (%.1f%%)%n",
-                    melhor.getAulas().size(), NUM_DISCIPLINAS,
-                    100.0 * melhor.getAulas().size() / NUM_DISCIPLINAS);
-
-            // Salvar resultado
-            salvarCronograma(melhor);
+                    melhor.getNumAulas(), algoritmo.problema.numDisciplinas,
+                    100.0 * melhor.getNumAulas() / algoritmo.problema.numDisciplinas);
+
+            CacheFitness fitnessCache = algoritmo.fitnessCache;
+            System.out.printf("Cache de fitness: %d acertos, %d falhas, %d despejos (%.1f%% de acerto)%n",
+                    fitnessCache.getAcertos(), fitnessCache.getFalhas(), fitnessCache.getDespejos(),
+                    100.0 * fitnessCache.getTaxaAcerto());
+
+            // Salvar resultado (com ilhas remotas, só o coordenador grava)
+            if ("ilha".equalsIgnoreCase(algoritmo.papelDistribuido)) {
+                System.out.println("💾 Cronograma salvo pelo coordenador");
+            } else {
+                algoritmo.salvarCronograma(melhor);
+                if (algoritmo.arquivoSolucaoBinaria != null) {
+                    algoritmo.salvarSolucaoBinaria(melhor);
+                }
+            }
 
         } finally {
             executor.shutdown();
         }
     }
 
-    static void salvarCronograma(Cromossomo cromossomo) {
-        try (PrintWriter writer = new PrintWriter("cronograma.txt")) {
-            writer.println("CRONOGRAMA UNIVERSITÁRIO - EDUCAÇÃO AVANÇADA");
-            writer.println("Gerado pelo Algoritmo Genético de Pedro Matos");
-            writer.println("=====================================================");
-            writer.println();
-
-            Map<Integer, List<Aula>> aulasPorHorario = cromossomo.getAulas().stream()
-                    .collect(Collectors.groupingBy(Aula::getHorario));
-
-            String[] dias = { "Segunda", "Terça", "Quarta", "Quinta", "Sexta" };
-            int horariosPerDay = NUM_HORARIOS / 5;
-
-            for (int dia = 0; dia < 5; dia++) {
-                writer.printf("\n=== %s ===%n", dias[dia].toUpperCase());
-
-                for (int hora = 0; hora < horariosPerDay; hora++) {
-                    int horarioId = dia * horariosPerDay + hora;
-                    writer.printf("%02d:00--%02d:00:%n", 8 + hora * 2, 10 + hora * 2);
-
-                    List<Aula> aulas = aulasPorHorario.getOrDefault(horarioId, Collections.emptyList());
-                    if (aulas.isEmpty()) {
-                        writer.println("  (sem aulas)");
-                    } else {
-                        for (Aula aula : aulas) {
-                            writer.printf("  %s - %s (Sala %d)%n",
-                                    nomesDisciplinas[aula.getDisciplina()],
-                                    nomesProfessores[aula.getProfessor()],
-                                    aula.getSala() + 1);
-                        }
+    /** Critério de parada desta execução; a reprogramação tem o seu limite de gerações. */
+    CriterioParada criarCriterio() {
+        int limite = problema.solucaoAnterior != null ? geracoesReprogramacao : geracoes;
+        return new CriterioParada(limite, fitnessAlvo, geracoesSemMelhoria, tempoLimiteSegundos);
+    }
+
+    /** Evolui no modo configurado até o critério de parada e devolve a melhor solução. */
+    Cromossomo executar(CriterioParada criterio) {
+        return "coordenador".equalsIgnoreCase(papelDistribuido) ? executarCoordenador(criterio)
+                : "ilha".equalsIgnoreCase(papelDistribuido) ? executarIlhaRemota(criterio)
+                : problema.solucaoAnterior != null ? executarReprogramacao(criterio)
+                : multiobjetivo ? executarMultiobjetivo(criterio)
+                : numIlhas > 1 ? executarIlhas(criterio)
+                : estadoEstacionario ? executarEstadoEstacionario(criterio)
+                : executarPopulacaoUnica(criterio);
+    }
+
+    Cromossomo executarPopulacaoUnica(CriterioParada criterio) {
+        // Retomar do checkpoint ou gerar a população inicial
+        Checkpoint.Estado estado = retomar ? carregarCheckpoint() : null;
+        MotorGeracional motor;
+        int geracaoInicial;
+        if (estado != null) {
+            motor = new MotorGeracional(this, Arrays.asList(estado.populacao), executor,
+                    new SplittableRandom(estado.sementeMotor));
+            geracaoInicial = estado.geracao;
+            melhorAteAgora.oferecer(estado.melhor);
+        } else {
+            motor = new MotorGeracional(this, gerarPopulacao(), executor, rngMestre.split());
+            geracaoInicial = 0;
+        }
+
+        evoluirMotor(motor, geracaoInicial, criterio);
+        return melhorAteAgora.obter();
+    }
+
+    /** Laço de gerações da população única: telemetria, checkpoint e progresso a cada 10 gerações. */
+    void evoluirMotor(MotorGeracional motor, int geracaoInicial, CriterioParada criterio) {
+        try (Telemetria telemetria = Telemetria.abrir(this, arquivoMetricas)) {
+            boolean parar = false;
+            for (int geracao = geracaoInicial; !parar; geracao++) {
+                motor.evoluirPopulacao();
+                melhorAteAgora.oferecer(motor.getMelhor());
+                telemetria.registrar(geracao, motor);
+                parar = criterio.deveParar(geracao, motor.getMelhor().getFitness());
+
+                if (arquivoCheckpoint != null && !parar && (geracao + 1) % intervaloCheckpoint == 0) {
+                    salvarCheckpoint(motor, geracao + 1);
+                }
+
+                if (geracao % 10 == 0 || parar) {
+                    double melhorFitness = motor.getMelhor().getFitness();
+                    double piorFitness = motor.getPior().getFitness();
+                    double diversidadeDoFitness = melhorFitness - piorFitness;
+                    saida.printf("Geração %3d - Melhor: %.2f | Pior: %.2f | Diversidade do Fitness: %.2f | Genótipos únicos: %d%n",
+                            geracao, melhorFitness, piorFitness, diversidadeDoFitness, motor.getGenotiposUnicos());
+                    if (suprimirDuplicatas) {
+                        saida.printf("           Duplicatas: %d mutadas de novo, %d restantes%n",
+                                motor.getDuplicatasSuprimidas(), motor.getDuplicatasRestantes());
+                    }
+                    ControladorOperadores controlador = motor.getControlador();
+                    if (controlador != null) {
+                        saida.printf("           Operadores: cruzamento %.2f, mutação %.2f | preferidos: %s%n",
+                                controlador.getTaxaCruzamento(), controlador.getTaxaMutacao(),
+                                controlador.getPreferidos());
                     }
                 }
             }
+        }
+        if (motor.getControlador() != null) {
+            motor.getControlador().mostrarEstatisticas(saida);
+        }
+    }
 
-            System.out.println("💾 Cronograma salvo em 'cronograma.txt' com sucesso por Pedro Matos!");
+    /**
+     * Reprogramação: parte da solução anterior em vez de uma população
+     * aleatória. As disciplinas afetadas pelas restrições atuais (com conflito
+     * ou sem aula) concentram as perturbações e a busca local; as demais só
+     * mudam se compensar a penalidade de mudança.
+     */
+    Cromossomo executarReprogramacao(CriterioParada criterio) {
+        if (arquivoCheckpoint != null || numIlhas > 1 || estadoEstacionario) {
+            saida.println("⚠️ Reprogramação usa a população única do motor geracional: checkpoint, ilhas e estado estacionário ignorados");
+        }
+        int numDisciplinas = problema.numDisciplinas;
+        Cromossomo anterior = new Cromossomo(problema.solucaoAnterior.getGenes().clone());
+        AvaliadorIncremental avaliador = avaliadorPorThread.get();
+        avaliador.carregar(anterior);
+        avaliador.escreverEm(anterior);
+        int[] afetadas = new int[numDisciplinas];
+        int numAfetadas = 0;
+        for (int d = 0; d < numDisciplinas; d++) {
+            if (anterior.getGene(d) == GENE_VAZIO || avaliador.conflitosDaAula(d) > 0) {
+                afetadas[numAfetadas++] = d;
+            }
+        }
+        afetadas = Arrays.copyOf(afetadas, numAfetadas);
+        saida.printf("🔁 Reprogramação a partir de '%s': %d aulas (%d descartadas), %d disciplinas afetadas, fitness %.2f%n",
+                arquivoSolucaoAnterior, anterior.getNumAulas(), problema.solucaoAnterior.getDescartadas(), numAfetadas,
+                anterior.getFitness());
+
+        MotorGeracional motor = new MotorGeracional(this, gerarPerturbacoes(anterior, afetadas, populacao), executor,
+                rngMestre.split());
+        evoluirMotor(motor, 0, criterio);
+
+        Cromossomo melhor = melhorAteAgora.obter();
+        int mudadas = 0;
+        for (int d = 0; d < numDisciplinas; d++) {
+            if (anterior.getGene(d) != GENE_VAZIO && melhor.getGene(d) != anterior.getGene(d)) {
+                mudadas++;
+            }
+        }
+        saida.printf("🔁 %d de %d aulas da solução anterior mudaram%n", mudadas, anterior.getNumAulas());
+        return melhor;
+    }
 
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar arquivo: " + e.getMessage());
+    /** A solução anterior seguida de tamanho - 1 perturbações dela, geradas em paralelo. */
+    List<Cromossomo> gerarPerturbacoes(Cromossomo anterior, int[] afetadas, int tamanho) {
+        saida.println("🧬 Gerando população a partir da solução anterior ...");
+        int passos = Math.min(problema.numDisciplinas, passosBuscaLocal + afetadas.length);
+        SplittableRandom[] rngs = new SplittableRandom[tamanho];
+        for (int i = 1; i < tamanho; i++) {
+            rngs[i] = rngMestre.split();
         }
+
+        Cromossomo[] populacao = new Cromossomo[tamanho];
+        populacao[0] = new Cromossomo(anterior); // O motor reaproveita os indivíduos
+        emParalelo(tamanho - 1, i -> populacao[i + 1] = perturbar(anterior, afetadas, passos, rngs[i + 1]));
+
+        saida.printf("✅ %d cromossomos criados (%d passos de busca local por perturbação)%n", tamanho, passos);
+        return Arrays.asList(populacao);
     }
 
-    // ----- INICIALIZAÇÃO -----
-    static {
-        initializarDados();
+    /**
+     * Retira de uma a cinco aulas sorteadas entre as afetadas (entre todas, se
+     * nenhuma foi afetada) e deixa a busca local realocá-las e corrigir os
+     * conflitos que restarem.
+     */
+    Cromossomo perturbar(Cromossomo anterior, int[] afetadas, int passos, SplittableRandom random) {
+        AvaliadorIncremental avaliador = avaliadorPorThread.get();
+        avaliador.carregar(anterior);
+        int retiradas = 1 + random.nextInt(5);
+        for (int i = 0; i < retiradas; i++) {
+            int disciplina = afetadas.length > 0 ? afetadas[random.nextInt(afetadas.length)]
+                    : random.nextInt(problema.numDisciplinas);
+            avaliador.remover(disciplina);
+        }
+        Cromossomo perturbado = avaliador.gerarCromossomo();
+        buscaLocalPorThread.get().melhorar(perturbado, passos, random);
+        return perturbado;
     }
 
-    static void initializarDados() {
-        System.out.println("🚀 Inicializando dados ...");
+    Checkpoint.Estado carregarCheckpoint() {
+        if (arquivoCheckpoint == null || !Files.exists(Paths.get(arquivoCheckpoint))) {
+            saida.println("📂 Nenhum checkpoint para retomar: começando da geração 0");
+            return null;
+        }
+        long inicio = System.nanoTime();
+        try {
+            Checkpoint.Estado estado = Checkpoint.carregar(Paths.get(arquivoCheckpoint),
+                    problema.instancia.impressaoDigital());
+            saida.printf("📂 Retomando da geração %d (%d indivíduos, %.1f ms)%n",
+                    estado.geracao, estado.populacao.length, (System.nanoTime() - inicio) / 1e6);
+            return estado;
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível retomar de '" + arquivoCheckpoint + "': "
+                    + e.getMessage(), e);
+        }
+    }
 
-        // Gerar nomes de disciplinas automaticamente
-        nomesDisciplinas = new String[NUM_DISCIPLINAS];
-        String[] areas = { "Computação", "Matemática", "Física", "Química", "Biologia",
-                "Engenharia", "Administração", "Economia", "Psicologia", "História" };
-        for (int i = 0; i < NUM_DISCIPLINAS; i++) {
-            nomesDisciplinas[i] = areas[i % areas.length] + " " + (i / areas.length + 1);
+    void salvarCheckpoint(MotorGeracional motor, int proximaGeracao) {
+        Path arquivo = Paths.get(arquivoCheckpoint);
+        try {
+            Checkpoint.salvar(arquivo, problema.instancia.impressaoDigital(), semente, proximaGeracao,
+                    motor.ressemear(), motor.getPopulacao(), melhorAteAgora.obter());
+        } catch (IOException e) {
+            // Um checkpoint perdido não deve derrubar a busca
+            System.err.println("Erro ao salvar checkpoint: " + e.getMessage());
         }
+    }
 
-        // Gerar nomes de professores automaticamente
-        nomesProfessores = new String[NUM_PROFESSORES];
-        String[] sobrenomes = { "Silva", "Santos", "Oliveira", "Costa", "Souza", "Lima", "Pereira",
-                "Ferreira", "Rodrigues", "Almeida", "Nascimento", "Carvalho" };
-        for (int i = 0; i < NUM_PROFESSORES; i++) {
-            nomesProfessores[i] = "Prof. " + sobrenomes[i % sobrenomes.length] +
-                    (i / sobrenomes.length > 0 ? " " + (i / sobrenomes.length + 1) : "");
+    Cromossomo executarIlhas(CriterioParada criterio) {
+        if (arquivoCheckpoint != null) {
+            saida.println("⚠️ Checkpoint disponível apenas com população única (ilhas=1): ignorado");
         }
+        saida.printf("🏝️ Modo de ilhas: %d ilhas de %d, migração de %d a cada %d gerações (%s)%n",
+                numIlhas, populacao / numIlhas, migrantes, intervaloMigracao, topologiaMigracao);
+        ModeloIlhas modelo = new ModeloIlhas(this, numIlhas, populacao / numIlhas, intervaloMigracao,
+                migrantes, topologiaMigracao, rngMestre.split());
+        modelo.evoluir(criterio, melhorAteAgora);
+        return melhorAteAgora.obter();
+    }
 
-        // Capacidades das salas
-        capacidadeSalas = new int[NUM_SALAS];
-        for (int i = 0; i < NUM_SALAS; i++) {
-            capacidadeSalas[i] = 30 + random.nextInt(71); // 30-100 alunos por sala
+    Cromossomo executarCoordenador(CriterioParada criterio) {
+        CoordenadorIlhas coordenador = new CoordenadorIlhas(this, ilhasRemotas, topologiaMigracao);
+        try {
+            coordenador.executar(ProtocoloIlhas.endereco(enderecoCoordenador).getPort(), criterio, melhorAteAgora,
+                    fitnessAlvo);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha no coordenador: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            criterio.interromper("coordenador interrompido");
+        }
+        if (melhorAteAgora.obter() == null) {
+            throw new IllegalStateException("Nenhuma ilha enviou resultado ao coordenador");
         }
+        return melhorAteAgora.obter();
+    }
 
-        // Disponibilidade dos professores
-        disponibilidadeProfessor = new boolean[NUM_PROFESSORES][NUM_HORARIOS];
-        for (int p = 0; p < NUM_PROFESSORES; p++) {
-            for (int h = 0; h < NUM_HORARIOS; h++) {
-                disponibilidadeProfessor[p][h] = random.nextDouble() > 0.3; // 70% disponível
-            }
+    Cromossomo executarIlhaRemota(CriterioParada criterio) {
+        if (arquivoCheckpoint != null || arquivoMetricas != null) {
+            saida.println("⚠️ Checkpoint e métricas valem apenas para a população única: ignorados");
+        }
+        try {
+            IlhaRemota ilha = new IlhaRemota(this, ProtocoloIlhas.endereco(enderecoCoordenador));
+            ilha.evoluir(criterio, melhorAteAgora, intervaloMigracao, migrantes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha na ilha remota: " + e.getMessage(), e);
         }
+        return melhorAteAgora.obter();
+    }
 
-        // Distribuição de disciplinas por professor
-        disciplinasPorProfessor = new int[NUM_PROFESSORES][];
-        int disciplinasPorProf = Math.max(3, NUM_DISCIPLINAS / NUM_PROFESSORES + 2);
-        for (int p = 0; p < NUM_PROFESSORES; p++) {
-            Set<Integer> disciplinas = new HashSet<>();
-            while (disciplinas.size() < disciplinasPorProf && disciplinas.size() < NUM_DISCIPLINAS) {
-                disciplinas.add(random.nextInt(NUM_DISCIPLINAS));
-            }
-            disciplinasPorProfessor[p] = disciplinas.stream().mapToInt(Integer::intValue).toArray();
+    Cromossomo executarEstadoEstacionario(CriterioParada criterio) {
+        if (arquivoCheckpoint != null || arquivoMetricas != null || buscaLocal) {
+            saida.println("⚠️ Checkpoint, métricas e busca local valem apenas para o motor geracional: ignorados");
         }
+        saida.printf("♻️ Estado estacionário: %d threads substituindo indivíduos sem barreira entre gerações%n",
+                paralelismo);
+        MotorEstacionario motor = new MotorEstacionario(this, gerarPopulacao(), rngMestre.split());
+        long inicio = System.nanoTime();
+        motor.evoluir(criterio, melhorAteAgora);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        saida.printf("♻️ %d filhos em %.2f s (%.0f por segundo, %.0f por thread), %d substituições, %d colisões%n",
+                motor.getNascimentos(), segundos, motor.getNascimentos() / segundos,
+                motor.getNascimentos() / segundos / paralelismo,
+                motor.getSubstituicoes(), motor.getColisoes());
+        return melhorAteAgora.obter();
+    }
 
-        // Distribuição de alunos por disciplina
-        alunosPorDisciplina = new ArrayList<>(NUM_DISCIPLINAS);
-        for (int d = 0; d < NUM_DISCIPLINAS; d++) {
-            Set<Integer> alunos = new HashSet<>();
-            int numAlunos = 20 + random.nextInt(31); // 20-50 alunos por disciplina
-            while (alunos.size() < numAlunos) {
-                alunos.add(random.nextInt(NUM_ALUNOS));
+    /**
+     * NSGA-II: uma execução produz a frente de Pareto entre alojamento,
+     * distribuição e conflitos. Devolve a solução de maior fitness ponderado,
+     * que vai para cronograma.txt como nos outros modos; a frente inteira é
+     * exibida e gravada em frente_pareto.
+     */
+    Cromossomo executarMultiobjetivo(CriterioParada criterio) {
+        if (arquivoCheckpoint != null || arquivoMetricas != null || buscaLocal || numIlhas > 1 || estadoEstacionario) {
+            saida.println("⚠️ Modo multiobjetivo usa uma população única sem checkpoint, métricas, busca local, ilhas ou estado estacionário: ignorados");
+        }
+        saida.println("🎯 Modo multiobjetivo (NSGA-II): alojamento, distribuição e conflitos como objetivos separados");
+        MotorMultiobjetivo motor = new MotorMultiobjetivo(this, gerarPopulacao(), rngMestre.split());
+        boolean parar = false;
+        for (int geracao = 0; !parar; geracao++) {
+            motor.evoluirPopulacao();
+            melhorAteAgora.oferecer(motor.getMelhor());
+            parar = criterio.deveParar(geracao, motor.getMelhor().getFitness());
+
+            if (geracao % 10 == 0 || parar) {
+                saida.printf("Geração %3d - Primeira frente: %d indivíduos | Frentes: %d | Melhor ponderado: %.2f%n",
+                        geracao, motor.getTamanhoFrente(), motor.getNumFrentes(), motor.getMelhor().getFitness());
             }
-            alunosPorDisciplina.add(alunos);
         }
 
-        System.out.println("✅ Dados inicializados!");
-        System.out.printf("📊 %d disciplinas, %d professores, %d salas, %d horários%n%n",
-                NUM_DISCIPLINAS, NUM_PROFESSORES, NUM_SALAS, NUM_HORARIOS);
+        List<MotorMultiobjetivo.PontoFrente> frente = motor.getFrente();
+        mostrarFrentePareto(frente);
+        if (arquivoFrentePareto != null) {
+            salvarFrentePareto(frente);
+        }
+        return melhorAteAgora.obter();
     }
 
-    // ---------- CLASSE PARA CROMOSSOMO -----
-    static class Cromossomo {
-        private final List<Aula> aulas;
-        private Double fitness;
-        private final String hash;
-
-        public Cromossomo(List<Aula> aulas) {
-            this.aulas = new ArrayList<>(aulas);
-            this.hash = calcularHash();
+    void mostrarFrentePareto(List<MotorMultiobjetivo.PontoFrente> frente) {
+        saida.printf("%n📈 Frente de Pareto: %d soluções distintas%n", frente.size());
+        saida.println("   #  | Alocadas | Horários usados | Conflitos | Fitness ponderado");
+        int exibidas = Math.min(frente.size(), 20);
+        for (int i = 0; i < exibidas; i++) {
+            MotorMultiobjetivo.PontoFrente ponto = frente.get(i);
+            saida.printf("  %3d | %8d | %15d | %9d | %.4f%n", i + 1, ponto.aulas, ponto.horariosUsados,
+                    ponto.conflitos, ponto.cromossomo.getFitness());
+        }
+        if (exibidas < frente.size()) {
+            saida.printf("  ... mais %d em frente_pareto%n", frente.size() - exibidas);
         }
+    }
 
-        public Cromossomo(Cromossomo outro) {
-            this.aulas = new ArrayList<>();
-            for (Aula aula : outro.aulas) {
-                this.aulas.add(new Aula(aula.getDisciplina(), aula.getProfessor(),
-                        aula.getSala(), aula.getHorario()));
+    /**
+     * Grava a frente em CSV, com os objetivos brutos e normalizados (os
+     * componentes do fitness ponderado), e, com frente_pareto_cronogramas,
+     * o cronograma de cada solução, que pode servir de solucao_anterior.
+     */
+    void salvarFrentePareto(List<MotorMultiobjetivo.PontoFrente> frente) {
+        try {
+            if (pastaCronogramasPareto != null) {
+                Files.createDirectories(Paths.get(pastaCronogramasPareto));
             }
-            this.hash = calcularHash();
+            try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(Paths.get(arquivoFrentePareto)))) {
+                csv.println("solucao,disciplinas_alocadas,horarios_usados,conflitos,alojamento,distribuicao,penalizacao_conflitos,fitness,cronograma");
+                for (int i = 0; i < frente.size(); i++) {
+                    MotorMultiobjetivo.PontoFrente ponto = frente.get(i);
+                    String cronograma = "";
+                    if (pastaCronogramasPareto != null) {
+                        Path arquivo = Paths.get(pastaCronogramasPareto, String.format("solucao_%03d.txt", i + 1));
+                        try (PrintWriter writer = new PrintWriter(arquivo.toFile())) {
+                            escreverCronograma(ponto.cromossomo, writer);
+                        }
+                        cronograma = arquivo.toString();
+                    }
+                    csv.printf(Locale.ROOT, "%d,%d,%d,%d,%.6f,%.6f,%.6f,%.6f,%s%n", i + 1, ponto.aulas,
+                            ponto.horariosUsados, ponto.conflitos, (double) ponto.aulas / problema.numDisciplinas,
+                            (double) ponto.horariosUsados / problema.numHorarios,
+                            Math.min(1.0, (double) ponto.conflitos / (problema.numDisciplinas * 10)), ponto.cromossomo.getFitness(),
+                            cronograma);
+                }
+            }
+            saida.printf("💾 Frente de Pareto salva em '%s'%n", arquivoFrentePareto);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar a frente de Pareto: " + e.getMessage());
         }
+    }
+
+    void salvarCronograma(Cromossomo cromossomo) {
+        try (PrintWriter writer = new PrintWriter("cronograma.txt")) {
+            escreverCronograma(cromossomo, writer);
+            saida.println("💾 Cronograma salvo em 'cronograma.txt' com sucesso por Pedro Matos!");
 
-        private String calcularHash() {
-            return aulas.stream()
-                    .mapToInt(a -> Objects.hash(a.getDisciplina(), a.getProfessor(),
-                            a.getSala(), a.getHorario()))
-                    .sum() + "";
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar arquivo: " + e.getMessage());
         }
+    }
 
-        public List<Aula> getAulas() {
-            return aulas;
+    /** O cronograma em texto, no formato de cronograma.txt (lido de volta pela reprogramação). */
+    void escreverCronograma(Cromossomo cromossomo, PrintWriter writer) {
+        writer.println("CRONOGRAMA UNIVERSITÁRIO - EDUCAÇÃO AVANÇADA");
+        writer.println("Gerado pelo Algoritmo Genético de Pedro Matos");
+        writer.println("=====================================================");
+        writer.println();
+
+        Map<Integer, List<Aula>> aulasPorHorario = cromossomo.getAulas().stream()
+                .collect(Collectors.groupingBy(Aula::getHorario));
+
+        String[] dias = { "Segunda", "Terça", "Quarta", "Quinta", "Sexta", "Sábado", "Domingo" };
+        int numDias = problema.instancia.numDias;
+        int horariosPerDay = problema.numHorarios / numDias;
+
+        for (int dia = 0; dia < numDias; dia++) {
+            writer.printf("\n=== %s ===%n", dia < dias.length ? dias[dia].toUpperCase() : "DIA " + (dia + 1));
+
+            for (int hora = 0; hora < horariosPerDay; hora++) {
+                int horarioId = dia * horariosPerDay + hora;
+                writer.printf("%02d:00--%02d:00:%n", 8 + hora * 2, 10 + hora * 2);
+
+                List<Aula> aulas = aulasPorHorario.getOrDefault(horarioId, Collections.emptyList());
+                if (aulas.isEmpty()) {
+                    writer.println("  (sem aulas)");
+                } else {
+                    for (Aula aula : aulas) {
+                        writer.printf("  %s - %s (Sala %d)%n",
+                                problema.nomesDisciplinas[aula.getDisciplina()],
+                                problema.nomesProfessores[aula.getProfessor()],
+                                aula.getSala() + 1);
+                    }
+                }
+            }
         }
+    }
 
-        public double getFitness() {
-            if (fitness == null) {
-                fitness = fitnessCache.computeIfAbsent(hash, k -> calcularFitness(this));
+    void salvarSolucaoBinaria(Cromossomo cromossomo) {
+        try {
+            SolucaoAnterior.salvarBinaria(Paths.get(arquivoSolucaoBinaria), cromossomo);
+            saida.printf("💾 Solução binária salva em '%s'%n", arquivoSolucaoBinaria);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar a solução binária: " + e.getMessage());
+        }
+    }
+
+    // ----- INICIALIZAÇÃO -----
+    Instancia carregarInstancia() {
+        saida.println("🚀 Inicializando dados ...");
+        Instancia carregada;
+        if (arquivoInstancia == null) {
+            carregada = Instancia.gerarSintetica(configuracao.lerInt("num_disciplinas", 150),
+                    configuracao.lerInt("num_professores", 30), configuracao.lerInt("num_salas", 20),
+                    configuracao.lerInt("num_horarios", 50), configuracao.lerInt("num_alunos", 1000),
+                    rngMestre.split());
+        } else {
+            try {
+                carregada = LeitorInstancia.ler(Paths.get(arquivoInstancia));
+            } catch (IOException e) {
+                throw new IllegalStateException("Erro ao ler a instância '" + arquivoInstancia + "': "
+                        + e.getMessage(), e);
             }
-            return fitness;
         }
 
-        public void invalidarFitness() {
-            fitness = null;
-            fitnessCache.remove(hash);
+        saida.printf("✅ Dados inicializados! (instância %s)%n", carregada.nome);
+        saida.printf("📊 %d disciplinas, %d professores, %d salas, %d horários, %d alunos, %d matrículas%n%n",
+                carregada.getNumDisciplinas(), carregada.getNumProfessores(), carregada.getNumSalas(),
+                carregada.numHorarios, carregada.getNumAlunos(), carregada.matriculas.getNumMatriculas());
+        return carregada;
+    }
+
+    Problema carregarProblema() {
+        Instancia instancia = carregarInstancia();
+        return new Problema(instancia, carregarSolucaoAnterior(instancia), configuracao.lerInt("penalidade_mudanca", 1));
+    }
+
+    SolucaoAnterior carregarSolucaoAnterior(Instancia instancia) {
+        if (arquivoSolucaoAnterior == null) {
+            return null;
+        }
+        try {
+            return SolucaoAnterior.carregar(Paths.get(arquivoSolucaoAnterior), instancia);
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao ler a solução anterior '" + arquivoSolucaoAnterior + "': "
+                    + e.getMessage(), e);
         }
     }
 
-    // ----- FUNÇÃO DE FITNESS -----
-    @SuppressWarnings("unchecked")
-    static double calcularFitness(Cromossomo cromossomo) {
-        // TODO: Coloquei o Fitness para variar entre 0 e 1
+    // ---------- CLASSE PARA CROMOSSOMO -----
+    // Cada gene é indexado pela disciplina e guarda professor, sala e horário
+    // empacotados em um único long (21 bits cada). GENE_VAZIO = disciplina não alocada.
+    static final long GENE_VAZIO = -1L;
+    private static final int BITS_CAMPO = 21;
+    private static final long MASCARA_CAMPO = (1L << BITS_CAMPO) - 1;
+
+    static long codificarGene(int professor, int sala, int horario) {
+        return ((long) professor << (2 * BITS_CAMPO)) | ((long) sala << BITS_CAMPO) | horario;
+    }
+
+    static int professorDo(long gene) {
+        return (int) (gene >>> (2 * BITS_CAMPO));
+    }
 
-        // 1. QUALIDADE DE ALOJAMENTO (40% do fitness)
-        double qualidadeAlojamento = (double) cromossomo.getAulas().size() / NUM_DISCIPLINAS;
+    static int salaDo(long gene) {
+        return (int) ((gene >>> BITS_CAMPO) & MASCARA_CAMPO);
+    }
 
-        // 2. QUALIDADE DE DISTRIBUIÇÃO (30% do fitness)
-        Set<Integer> horariosUsados = new HashSet<>();
+    static int horarioDo(long gene) {
+        return (int) (gene & MASCARA_CAMPO);
+    }
+
+    // Hash Zobrist: XOR de uma chave de 64 bits por (disciplina, gene). As chaves são
+    // derivadas por uma função de mistura (splitmix64) em vez de uma tabela, o que mantém
+    // a memória constante em instâncias grandes. Trocar um gene custa dois XORs.
+    static long chaveZobrist(int disciplina, long gene) {
+        return misturar(misturar(gene) + disciplina);
+    }
 
-        for (Aula aula : cromossomo.getAulas()) {
-            horariosUsados.add(aula.getHorario());
+    static long misturar(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Genes de uma solução com contagem de aulas, hash e fitness. O fitness é
+     * dado pela execução que avalia o cromossomo ({@link #avaliar(Cromossomo)}):
+     * o cromossomo em si não conhece o problema.
+     */
+    static class Cromossomo {
+        private final long[] genes;
+        private int numAulas;
+        private long hash;
+        private double fitness;
+
+        /** Assume a posse do array de genes (um gene por disciplina). */
+        public Cromossomo(long[] genes) {
+            this(genes, contarAulas(genes), calcularHash(genes), Double.NaN);
         }
 
-        double qualidadeDistribuicao = (double) horariosUsados.size() / NUM_HORARIOS;
+        /** Cromossomo com hash e fitness já conhecidos (ex.: vindos do avaliador incremental). */
+        Cromossomo(long[] genes, int numAulas, long hash, double fitness) {
+            this.genes = genes;
+            this.numAulas = numAulas;
+            this.hash = hash;
+            this.fitness = fitness;
+        }
 
-        // 3. PENALIZAÇÕES (30% do fitness)
-        int conflitosTotal = 0;
-        int maxConflitos = NUM_DISCIPLINAS * 10; // Aumentado para refletir penalizações reais
+        public Cromossomo(Cromossomo outro) {
+            this(outro.genes.clone(), outro.numAulas, outro.hash, outro.fitness);
+        }
 
-        // Estruturas para verificação rápida de conflitos
-        Set<Integer>[][] ocupacao = new Set[NUM_HORARIOS][NUM_SALAS];
-        Set<Integer>[] professorHorario = new Set[NUM_HORARIOS];
+        /** Sobrescreve este cromossomo com o conteúdo de outro, sem alocar. */
+        void copiarDe(Cromossomo outro) {
+            System.arraycopy(outro.genes, 0, genes, 0, genes.length);
+            numAulas = outro.numAulas;
+            hash = outro.hash;
+            fitness = outro.fitness;
+        }
 
-        for (int h = 0; h < NUM_HORARIOS; h++) {
-            professorHorario[h] = new HashSet<>();
-            for (int s = 0; s < NUM_SALAS; s++) {
-                ocupacao[h][s] = new HashSet<>();
+        /** Sobrescreve os genes com um estado cujo hash e fitness já são conhecidos. */
+        void atribuir(long[] novosGenes, int novoNumAulas, long novoHash, double novoFitness) {
+            System.arraycopy(novosGenes, 0, genes, 0, genes.length);
+            numAulas = novoNumAulas;
+            hash = novoHash;
+            fitness = novoFitness;
+        }
+
+        /** Filho de um corte: disciplinas [0, corte) de pai1, o restante de pai2. */
+        void cruzarEmPonto(Cromossomo pai1, Cromossomo pai2, int corte) {
+            System.arraycopy(pai1.genes, 0, genes, 0, corte);
+            System.arraycopy(pai2.genes, corte, genes, corte, genes.length - corte);
+            genesAlterados();
+        }
+
+        /** Reescreve cada gene com gene(disciplina), em ordem, para operadores de fora desta classe. */
+        void escreverGenes(IntToLongFunction gene) {
+            for (int d = 0; d < genes.length; d++) {
+                genes[d] = gene.applyAsLong(d);
             }
+            genesAlterados();
         }
 
-        for (Aula aula : cromossomo.getAulas()) {
-            int disc = aula.getDisciplina();
-            int prof = aula.getProfessor();
-            int sala = aula.getSala();
-            int hor = aula.getHorario();
+        /** Recalcula contagem e hash depois de os genes serem escritos diretamente. */
+        private void genesAlterados() {
+            numAulas = contarAulas(genes);
+            hash = calcularHash(genes);
+            fitness = Double.NaN;
+        }
 
-            // Verificar se professor pode lecionar a disciplina
-            boolean podeEnsinar = false;
-            for (int d : disciplinasPorProfessor[prof]) {
-                if (d == disc) {
-                    podeEnsinar = true;
-                    break;
+        private static int contarAulas(long[] genes) {
+            int total = 0;
+            for (long gene : genes) {
+                if (gene != GENE_VAZIO) {
+                    total++;
                 }
             }
-            if (!podeEnsinar) {
-                conflitosTotal += 6; // Penalização alta
-                // NÃO usar continue - ainda verificar outros conflitos
-            }
+            return total;
+        }
 
-            // Verificar disponibilidade do professor
-            if (!disponibilidadeProfessor[prof][hor]) {
-                conflitosTotal += 5;
-                // NÃO usar continue - ainda verificar outros conflitos
+        private static long calcularHash(long[] genes) {
+            long hash = 0;
+            for (int d = 0; d < genes.length; d++) {
+                if (genes[d] != GENE_VAZIO) {
+                    hash ^= chaveZobrist(d, genes[d]);
+                }
             }
+            return hash;
+        }
 
-            // Verificar conflito de professor
-            if (!professorHorario[hor].add(prof)) {
-                conflitosTotal += 4; // Professor já ocupado
-            }
+        public long getGene(int disciplina) {
+            return genes[disciplina];
+        }
+
+        int getNumGenes() {
+            return genes.length;
+        }
+
+        /** Cópia dos genes para operadores que geram um novo cromossomo. */
+        long[] copiarGenes() {
+            return genes.clone();
+        }
 
-            // Verificar conflitos de alunos
-            Set<Integer> alunosNaSala = ocupacao[hor][sala];
-            Set<Integer> alunosDisciplina = alunosPorDisciplina.get(disc);
+        public int getNumAulas() {
+            return numAulas;
+        }
 
-            for (int aluno : alunosDisciplina) {
-                if (!alunosNaSala.add(aluno)) {
-                    conflitosTotal += 1; // Conflito de aluno
+        public long getHash() {
+            return hash;
+        }
+
+        /** Materializa as aulas; usar apenas nas bordas (relatórios e arquivo). */
+        public List<Aula> getAulas() {
+            List<Aula> aulas = new ArrayList<>(numAulas);
+            for (int d = 0; d < genes.length; d++) {
+                long gene = genes[d];
+                if (gene != GENE_VAZIO) {
+                    aulas.add(new Aula(d, professorDo(gene), salaDo(gene), horarioDo(gene)));
                 }
             }
+            return aulas;
+        }
 
-            // Verificar capacidade física da sala
-            if (alunosNaSala.size() > capacidadeSalas[sala]) {
-                conflitosTotal += 3; // Sala superlotada
-            }
+        boolean fitnessConhecido() {
+            return !Double.isNaN(fitness);
         }
 
-        // Normalizar penalizações
-        double penalizacaoConflitos = Math.min(1.0, (double) conflitosTotal / maxConflitos);
+        /** Registra um fitness calculado fora do cromossomo (avaliação em lote). */
+        void definirFitness(double valor) {
+            fitness = valor;
+        }
 
-        // CÁLCULO FINAL DO FITNESS (0 a 1)
-        double fitness = (qualidadeAlojamento * 0.4) + (qualidadeDistribuicao * 0.3)
-                + ((1.0 - penalizacaoConflitos) * 0.3);
+        public double getFitness() {
+            assert fitnessConhecido() : "cromossomo ainda não avaliado";
+            return fitness;
+        }
+    }
+
+    // ----- FUNÇÃO DE FITNESS -----
 
-        return Math.max(0.0, Math.min(1.0, fitness));
+    /** Garante o fitness do cromossomo, pelo cache ou pela avaliação completa, e o devolve. */
+    Cromossomo avaliar(Cromossomo cromossomo) {
+        if (!cromossomo.fitnessConhecido()) {
+            double valor = fitnessCache.obter(cromossomo.getHash());
+            if (Double.isNaN(valor)) {
+                valor = calcularFitness(cromossomo);
+                fitnessCache.guardar(cromossomo.getHash(), valor);
+            }
+            cromossomo.definirFitness(valor);
+        }
+        return cromossomo;
+    }
+
+    /** Garante o fitness de populacao[inicio, fim): em lote ou um a um, conforme avaliacao_lote. */
+    void avaliar(Cromossomo[] populacao, int inicio, int fim) {
+        if (avaliacaoEmLote) {
+            avaliadorLotePorThread.get().avaliar(populacao, inicio, fim);
+            return;
+        }
+        for (int i = inicio; i < fim; i++) {
+            avaliar(populacao[i]);
+        }
+    }
+
+    double calcularFitness(Cromossomo cromossomo) {
+        AvaliadorIncremental avaliador = avaliadorPorThread.get();
+        avaliador.carregar(cromossomo);
+        return avaliador.getFitness();
     }
 
     // ----- GERAÇÃO DA POPULAÇÃO -----
-    static List<Cromossomo> gerarPopulacao() {
-        System.out.println("🧬 Gerando população ...");
+    List<Cromossomo> gerarPopulacao() {
+        return gerarPopulacao(populacao);
+    }
+
+    List<Cromossomo> gerarPopulacao(int tamanho) {
+        return gerarPopulacao(tamanho, rngMestre);
+    }
 
-        List<CompletableFuture<Cromossomo>> futures = new ArrayList<>();
+    /** População com fluxos aleatórios tirados de origem (cada ilha remota usa a sua). */
+    List<Cromossomo> gerarPopulacao(int tamanho, SplittableRandom origem) {
+        saida.println("🧬 Gerando população ...");
 
-        for (int i = 0; i < POPULACAO; i++) {
-            futures.add(CompletableFuture.supplyAsync(() -> gerarCromossomoAleatorio(), executor));
+        // Os primeiros proporcaoSemeada * tamanho vêm da semeadura construtiva
+        int semeados = (int) Math.round(tamanho * proporcaoSemeada);
+        SplittableRandom[] rngs = new SplittableRandom[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            rngs[i] = origem.split();
         }
 
-        List<Cromossomo> populacao = futures.stream()
-                .map(CompletableFuture::join)
-                .collect(Collectors.toList());
+        Cromossomo[] populacao = new Cromossomo[tamanho];
+        emParalelo(tamanho, i -> populacao[i] = i < semeados ? gerarCromossomoConstrutivo(rngs[i])
+                : gerarCromossomoAleatorio(rngs[i]));
 
-        System.out.printf("✅ %d cromossomos criados em paralelo%n", POPULACAO);
-        return populacao;
+        saida.printf("✅ %d cromossomos criados em paralelo (%d por semeadura construtiva)%n", tamanho, semeados);
+        return Arrays.asList(populacao);
     }
 
-    static Cromossomo gerarCromossomoAleatorio() {
-        List<Aula> aulas = new ArrayList<>();
-        Set<Integer> disciplinasUsadas = new HashSet<>();
+    /**
+     * Executa tarefa(0..quantidade-1) em até {@code paralelismo} tarefas do
+     * pool, uma faixa contígua de índices por tarefa. Cada índice deve
+     * depender só do seu próprio fluxo aleatório.
+     */
+    void emParalelo(int quantidade, IntConsumer tarefa) {
+        int faixas = Math.min(paralelismo, Math.max(1, quantidade));
+        if (faixas == 1) {
+            // Uma faixa só: na própria thread, que pode já ser uma tarefa do pool
+            for (int i = 0; i < quantidade; i++) {
+                tarefa.accept(i);
+            }
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(faixas);
+        for (int f = 0; f < faixas; f++) {
+            int inicio = (int) ((long) quantidade * f / faixas);
+            int fim = (int) ((long) quantidade * (f + 1) / faixas);
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = inicio; i < fim; i++) {
+                    tarefa.accept(i);
+                }
+            }, executor));
+        }
+        futures.forEach(CompletableFuture::join);
+    }
 
-        // Tentar alocar cada disciplina
-        for (int d = 0; d < NUM_DISCIPLINAS; d++) {
-            if (disciplinasUsadas.contains(d))
-                continue;
+    Cromossomo gerarCromossomoAleatorio(SplittableRandom random) {
+        int numDisciplinas = problema.numDisciplinas;
+        long[] genes = new long[numDisciplinas];
+        Arrays.fill(genes, GENE_VAZIO);
 
-            // Encontrar professores que podem ensinar esta disciplina
-            List<Integer> professoresDisponiveis = new ArrayList<>();
-            for (int p = 0; p < NUM_PROFESSORES; p++) {
-                for (int disc : disciplinasPorProfessor[p]) {
-                    if (disc == d) {
-                        professoresDisponiveis.add(p);
-                        break;
-                    }
-                }
-            }
+        // Tentar alocar cada disciplina
+        for (int d = 0; d < numDisciplinas; d++) {
+            // Professores que podem ensinar esta disciplina (índice reverso)
+            int[] professoresDisponiveis = problema.indice.professoresDe(d);
 
-            if (professoresDisponiveis.isEmpty())
+            if (professoresDisponiveis.length == 0)
                 continue;
 
             // Tentar várias vezes encontrar um horário válido
             for (int tentativa = 0; tentativa < 10; tentativa++) {
-                int professor = professoresDisponiveis.get(random.nextInt(professoresDisponiveis.size()));
-                int horario = random.nextInt(NUM_HORARIOS);
-                int sala = random.nextInt(NUM_SALAS);
+                int professor = professoresDisponiveis[random.nextInt(professoresDisponiveis.length)];
+                int horario = random.nextInt(problema.numHorarios);
+                int sala = random.nextInt(problema.numSalas);
 
-                if (disponibilidadeProfessor[professor][horario]) {
-                    aulas.add(new Aula(d, professor, sala, horario));
-                    disciplinasUsadas.add(d);
+                if (problema.disponibilidadeProfessor[professor][horario]) {
+                    genes[d] = codificarGene(professor, sala, horario);
                     break;
                 }
             }
         }
 
-        return new Cromossomo(aulas);
+        return new Cromossomo(genes);
     }
 
-    // ----- EVOLUÇÃO -----
-    static List<Cromossomo> evoluirPopulacao(List<Cromossomo> populacao) {
-        // Calcular fitness
-        populacao.parallelStream().forEach(Cromossomo::getFitness);
+    /**
+     * Semeadura construtiva: guloso aleatorizado no estilo DSatur. As disciplinas
+     * com mais conflitos de alunos são alocadas primeiro (com ruído para variar a
+     * ordem entre indivíduos); para cada uma são sorteados alguns pares
+     * professor/horário viáveis, a sala é a menor livre que comporta a turma e fica
+     * o candidato de maior ganho de fitness, medido pelo avaliador incremental.
+     */
+    Cromossomo gerarCromossomoConstrutivo(SplittableRandom random) {
+        int numDisciplinas = problema.numDisciplinas;
+        IndiceRestricoes indice = problema.indice;
+
+        // Ordem por grau de conflito com ruído: grau nos bits altos, disciplina nos baixos
+        long[] ordem = new long[numDisciplinas];
+        for (int d = 0; d < numDisciplinas; d++) {
+            long prioridade = (long) ((indice.grauConflito(d) + 1) * (0.5 + random.nextDouble()) * 1024);
+            ordem[d] = (prioridade << 32) | d;
+        }
+        Arrays.sort(ordem);
 
-        // Ordenar por fitness
-        populacao.sort((a, b) -> Double.compare(b.getFitness(), a.getFitness()));
+        AvaliadorIncremental avaliador = avaliadorPorThread.get();
+        avaliador.esvaziar();
 
-        List<Cromossomo> novaPopulacao = new ArrayList<>();
+        for (int i = numDisciplinas - 1; i >= 0; i--) {
+            int disciplina = (int) ordem[i];
+            int[] professores = indice.professoresDe(disciplina);
+            if (professores.length == 0) {
+                continue;
+            }
 
-        // Elitismo - preservar os melhores
-        for (int i = 0; i < ELITE_SIZE; i++) {
-            novaPopulacao.add(new Cromossomo(populacao.get(i)));
+            long melhorGene = GENE_VAZIO;
+            double melhorGanho = 0.0; // Só aloca se melhorar o fitness
+            for (int tentativa = 0; tentativa < tentativasSemeadura; tentativa++) {
+                int professor = professores[random.nextInt(professores.length)];
+                int horario = random.nextInt(problema.numHorarios);
+                if (!problema.disponibilidadeProfessor[professor][horario]) {
+                    continue;
+                }
+                long gene = codificarGene(professor, escolherSala(avaliador, disciplina, horario), horario);
+                double ganho = avaliador.deltaMover(disciplina, gene);
+                if (ganho > melhorGanho) {
+                    melhorGanho = ganho;
+                    melhorGene = gene;
+                }
+            }
+            if (melhorGene != GENE_VAZIO) {
+                avaliador.mover(disciplina, melhorGene);
+            }
         }
 
-        // Gerar resto da população em paralelo
-        List<CompletableFuture<Cromossomo>> futures = new ArrayList<>();
+        return avaliador.gerarCromossomo();
+    }
 
-        for (int i = ELITE_SIZE; i < POPULACAO; i++) {
-            futures.add(CompletableFuture.supplyAsync(() -> {
-                Cromossomo pai1 = selecionarPorTorneio(populacao);
-                Cromossomo pai2 = selecionarPorTorneio(populacao);
-                Cromossomo filho = cruzar(pai1, pai2);
-                return fazerMutacao(filho);
-            }, executor));
+    /** Menor sala livre no horário que comporta a turma; sem nenhuma, a maior livre. */
+    int escolherSala(AvaliadorIncremental avaliador, int disciplina, int horario) {
+        IndiceRestricoes indice = problema.indice;
+        int[] salas = indice.salasPorCapacidade();
+        int maiorLivre = salas[salas.length - 1];
+        for (int sala : salas) {
+            if (!avaliador.celulaOcupada(horario, sala)) {
+                if (indice.cabeNaSala(disciplina, sala)) {
+                    return sala;
+                }
+                maiorLivre = sala;
+            }
         }
-
-        futures.stream()
-                .map(CompletableFuture::join)
-                .forEach(novaPopulacao::add);
-
-        return novaPopulacao;
+        return maiorLivre;
     }
 
-    static Cromossomo selecionarPorTorneio(List<Cromossomo> populacao) {
+    // ----- EVOLUÇÃO -----
+    // A geração é conduzida pelo MotorGeracional; os operadores abaixo escrevem no filho recebido
+
+    Cromossomo selecionarPorTorneio(Cromossomo[] pais, SplittableRandom random) {
         Cromossomo melhor = null;
-        for (int i = 0; i < TOURNAMENT_SIZE; i++) {
-            Cromossomo candidato = populacao.get(random.nextInt(populacao.size()));
+        for (int i = 0; i < tamanhoTorneio; i++) {
+            Cromossomo candidato = pais[random.nextInt(pais.length)];
             if (melhor == null || candidato.getFitness() > melhor.getFitness()) {
                 melhor = candidato;
             }
@@ -444,65 +1112,58 @@ public class AlgoritmoGenetico {
         return melhor;
     }
 
-    static Cromossomo cruzar(Cromossomo pai1, Cromossomo pai2) {
-        if (random.nextDouble() > TAXA_CRUZAMENTO) {
-            return new Cromossomo(pai1);
-        }
-
-        List<Aula> aulasFilho = new ArrayList<>();
-        Set<Integer> disciplinasUsadas = new HashSet<>();
-
-        // Ponto de corte
-        int corte = random.nextInt(Math.min(pai1.getAulas().size(), pai2.getAulas().size()));
-
-        // Primeira parte do pai1
-        for (int i = 0; i < corte && i < pai1.getAulas().size(); i++) {
-            Aula aula = pai1.getAulas().get(i);
-            if (disciplinasUsadas.add(aula.getDisciplina())) {
-                aulasFilho.add(new Aula(aula.getDisciplina(), aula.getProfessor(),
-                        aula.getSala(), aula.getHorario()));
+    /** Torneio sobre uma aptidão própria (ex.: o fitness compartilhado); devolve o índice do vencedor. */
+    int selecionarPorTorneio(double[] aptidao, SplittableRandom random) {
+        int melhor = random.nextInt(aptidao.length);
+        for (int i = 1; i < tamanhoTorneio; i++) {
+            int candidato = random.nextInt(aptidao.length);
+            if (aptidao[candidato] > aptidao[melhor]) {
+                melhor = candidato;
             }
         }
+        return melhor;
+    }
 
-        // Segunda parte do pai2
-        for (Aula aula : pai2.getAulas()) {
-            if (disciplinasUsadas.add(aula.getDisciplina())) {
-                aulasFilho.add(new Aula(aula.getDisciplina(), aula.getProfessor(),
-                        aula.getSala(), aula.getHorario()));
-            }
+    void cruzar(Cromossomo pai1, Cromossomo pai2, Cromossomo filho, SplittableRandom random) {
+        if (random.nextDouble() > taxaCruzamento) {
+            filho.copiarDe(pai1);
+            return;
         }
 
-        return new Cromossomo(aulasFilho);
+        Operadores.PONTO_UNICO.cruzar(pai1, pai2, filho, random);
     }
 
-    static Cromossomo fazerMutacao(Cromossomo cromossomo) {
-        if (random.nextDouble() > TAXA_MUTACAO) {
-            return cromossomo;
+    void fazerMutacao(Cromossomo cromossomo, SplittableRandom random) {
+        if (random.nextDouble() > taxaMutacao) {
+            return;
         }
+        mutar(cromossomo, random);
+    }
 
-        List<Aula> aulas = new ArrayList<>(cromossomo.getAulas());
-
-        if (!aulas.isEmpty()) {
-            int index = random.nextInt(aulas.size());
-            Aula aulaOriginal = aulas.get(index);
-
-            // Tentar mutar para um estado válido
-            for (int tentativa = 0; tentativa < 5; tentativa++) {
-                int novoHorario = random.nextInt(NUM_HORARIOS);
-                int novaSala = random.nextInt(NUM_SALAS);
-
-                if (disponibilidadeProfessor[aulaOriginal.getProfessor()][novoHorario]) {
-                    aulas.set(index, new Aula(aulaOriginal.getDisciplina(),
-                            aulaOriginal.getProfessor(),
-                            novaSala, novoHorario));
-                    break;
-                }
-            }
+    /** Move uma aula sorteada para outra sala/horário, sem o sorteio da taxa de mutação. */
+    void mutar(Cromossomo cromossomo, SplittableRandom random) {
+        if (cromossomo.getNumAulas() == 0) {
+            return;
         }
+        mutar(cromossomo, moverAula, random);
+    }
 
-        Cromossomo mutado = new Cromossomo(aulas);
-        mutado.invalidarFitness();
-        return mutado;
+    /**
+     * Aplica a mutação avaliando o cromossomo uma única vez: carregar monta o
+     * estado do avaliador (e com ele o fitness), o movimento entra pelo delta
+     * e o resultado volta ao cromossomo e ao cache mesmo quando nenhum
+     * movimento é aplicado, então o filho não é reavaliado depois.
+     */
+    void mutar(Cromossomo cromossomo, Operadores.Mutacao mutacao, SplittableRandom random) {
+        AvaliadorIncremental avaliador = avaliadorPorThread.get();
+        avaliador.carregar(cromossomo);
+        if (mutacao.mutar(avaliador, random)) {
+            avaliador.escreverEm(cromossomo);
+            assert Math.abs(cromossomo.getFitness() - calcularFitness(cromossomo)) < 1e-9 : "delta de fitness divergente";
+        } else {
+            cromossomo.definirFitness(avaliador.getFitness());
+        }
+        fitnessCache.guardar(cromossomo.getHash(), cromossomo.getFitness());
     }
 
 }
@@ -0,0 +1,382 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ * Avaliador incremental do fitness. Mantém, para um cromossomo, a ocupação de
+ * cada sala/horário e de cada professor/horário, de forma que mover, trocar ou
+ * remover uma aula custe O(aulas nas células afetadas) em vez de reavaliar
+ * todas as aulas. Carregar um cromossomo do zero é a avaliação completa e
+ * serve de verificação para os deltas.
+ *
+ * Não é thread-safe: cada thread usa a sua instância.
+ */
+class AvaliadorIncremental {
+    // Posições do detalhamento devolvido por detalharConflitos()
+    static final int CONFLITO_PROFESSOR = 0;
+    static final int CONFLITO_DISPONIBILIDADE = 1;
+    static final int CONFLITO_ALUNO = 2;
+    static final int CONFLITO_CAPACIDADE = 3;
+    static final int CONFLITO_MUDANCA = 4;
+    static final int TIPOS_CONFLITO = 5;
+
+    private final int numDisciplinas;
+    private final int numSalas;
+    private final int numProfessores;
+    private final Problema problema;
+    private final IndiceRestricoes indice;
+    private final RegrasFitness regras;
+
+    private final long[] genes;
+
+    // Aulas de cada sala/horário em lista duplamente encadeada (-1 = fim)
+    private final int[] primeiroDaCelula;
+    private final int[] proximoNaCelula;
+    private final int[] anteriorNaCelula;
+    private final int[] alunosNaCelula;
+    private final int[] penalizacaoDaCelula; // Alunos repetidos + superlotação
+    private final int[] aulasDaCelula;       // Aulas de uma célula em ordem de disciplina
+    private final int[] aulasPorProfessorHorario;
+    private final int[] aulasPorHorario;
+
+    private int conflitosTotal;
+    private int horariosUsados;
+    private int numAulas;
+    private long hash;
+
+    AvaliadorIncremental(Problema problema) {
+        this.numDisciplinas = problema.numDisciplinas;
+        this.numSalas = problema.numSalas;
+        this.numProfessores = problema.numProfessores;
+        this.problema = problema;
+        this.indice = problema.indice;
+        this.regras = new RegrasFitness(problema);
+
+        int numHorarios = problema.numHorarios;
+        this.genes = new long[numDisciplinas];
+        this.primeiroDaCelula = new int[numHorarios * numSalas];
+        this.proximoNaCelula = new int[numDisciplinas];
+        this.anteriorNaCelula = new int[numDisciplinas];
+        this.alunosNaCelula = new int[numHorarios * numSalas];
+        this.penalizacaoDaCelula = new int[numHorarios * numSalas];
+        this.aulasDaCelula = new int[numDisciplinas];
+        this.aulasPorProfessorHorario = new int[numHorarios * numProfessores];
+        this.aulasPorHorario = new int[numHorarios];
+
+        Arrays.fill(genes, AlgoritmoGenetico.GENE_VAZIO);
+        Arrays.fill(primeiroDaCelula, -1);
+    }
+
+    /** Descarta o estado atual, deixando todas as disciplinas sem aula. */
+    void esvaziar() {
+        limpar();
+    }
+
+    /**
+     * Avaliação completa: descarta o estado atual e insere todas as aulas. As
+     * salas/horários são pontuadas uma vez cada, depois de todas as inserções.
+     */
+    void carregar(AlgoritmoGenetico.Cromossomo cromossomo) {
+        limpar();
+        for (int d = 0; d < numDisciplinas; d++) {
+            long gene = cromossomo.getGene(d);
+            if (gene != AlgoritmoGenetico.GENE_VAZIO) {
+                inserir(d, gene, false);
+            }
+        }
+        for (int d = 0; d < numDisciplinas; d++) {
+            long gene = genes[d];
+            if (gene != AlgoritmoGenetico.GENE_VAZIO) {
+                int celula = AlgoritmoGenetico.horarioDo(gene) * numSalas + AlgoritmoGenetico.salaDo(gene);
+                if (primeiroDaCelula[celula] == d) { // Cada célula ocupada tem um único primeiro
+                    repontuarCelula(celula);
+                }
+            }
+        }
+    }
+
+    double getFitness() {
+        return problema.calcularFitness(numAulas, horariosUsados, conflitosTotal);
+    }
+
+    int getConflitosTotal() {
+        return conflitosTotal;
+    }
+
+    int getNumAulas() {
+        return numAulas;
+    }
+
+    int getHorariosUsados() {
+        return horariosUsados;
+    }
+
+    /**
+     * Penalização do estado atual separada por tipo (índices CONFLITO_*); a
+     * soma é igual a {@link #getConflitosTotal()}. Recalculada a partir das
+     * estruturas de ocupação, fora do caminho quente: professor reúne
+     * professor não habilitado e professor com duas aulas no mesmo horário;
+     * mudança só aparece na reprogramação.
+     */
+    int[] detalharConflitos() {
+        int[] conflitos = new int[TIPOS_CONFLITO];
+        for (int d = 0; d < numDisciplinas; d++) {
+            long gene = genes[d];
+            if (gene == AlgoritmoGenetico.GENE_VAZIO) {
+                continue;
+            }
+            int prof = AlgoritmoGenetico.professorDo(gene);
+            int hor = AlgoritmoGenetico.horarioDo(gene);
+            int naoHabilitado = indice.podeLecionar(prof, d) ? 0 : RegrasFitness.PESO_PROFESSOR_NAO_HABILITADO;
+            conflitos[CONFLITO_PROFESSOR] += naoHabilitado;
+            conflitos[CONFLITO_DISPONIBILIDADE] += regras.penalizacaoDaAula(d, prof, hor) - naoHabilitado;
+            conflitos[CONFLITO_MUDANCA] += regras.penalizacaoMudanca(d, gene);
+        }
+        for (int aulas : aulasPorProfessorHorario) {
+            if (aulas > 1) {
+                conflitos[CONFLITO_PROFESSOR] += RegrasFitness.PESO_PROFESSOR_OCUPADO * (aulas - 1);
+            }
+        }
+        for (int celula = 0; celula < primeiroDaCelula.length; celula++) {
+            if (primeiroDaCelula[celula] != -1) {
+                int penalizacao = regras.pontuarCelula(aulasDaCelula, ordenarAulas(celula), celula % numSalas);
+                conflitos[CONFLITO_ALUNO] += regras.getConflitosAlunos();
+                conflitos[CONFLITO_CAPACIDADE] += penalizacao - regras.getConflitosAlunos();
+            }
+        }
+        return conflitos;
+    }
+
+    /**
+     * Penalização em que a aula da disciplina está envolvida: professor não
+     * habilitado ou indisponível, professor com outra aula no horário, alunos
+     * em comum com as outras aulas da sala, sala superlotada e, na
+     * reprogramação, mudança em relação à solução anterior. Zero se a
+     * disciplina não está alocada. Custa O(aulas na célula).
+     */
+    int conflitosDaAula(int disciplina) {
+        long gene = genes[disciplina];
+        if (gene == AlgoritmoGenetico.GENE_VAZIO) {
+            return 0;
+        }
+        int prof = AlgoritmoGenetico.professorDo(gene);
+        int sala = AlgoritmoGenetico.salaDo(gene);
+        int hor = AlgoritmoGenetico.horarioDo(gene);
+        int celula = hor * numSalas + sala;
+
+        int conflitos = regras.penalizacaoDaAula(disciplina, prof, hor) + regras.penalizacaoMudanca(disciplina, gene);
+        if (aulasPorProfessorHorario[hor * numProfessores + prof] > 1) {
+            conflitos += RegrasFitness.PESO_PROFESSOR_OCUPADO;
+        }
+        for (int outra = primeiroDaCelula[celula]; outra != -1; outra = proximoNaCelula[outra]) {
+            if (outra != disciplina) {
+                conflitos += indice.alunosEmComum(disciplina, outra) * RegrasFitness.PESO_CONFLITO_ALUNO;
+            }
+        }
+        if (alunosNaCelula[celula] > indice.capacidadeSala(sala)) {
+            conflitos += RegrasFitness.PESO_SALA_SUPERLOTADA;
+        }
+        return conflitos;
+    }
+
+    long getGene(int disciplina) {
+        return genes[disciplina];
+    }
+
+    boolean celulaOcupada(int horario, int sala) {
+        return primeiroDaCelula[horario * numSalas + sala] != -1;
+    }
+
+    long[] copiarGenes() {
+        return genes.clone();
+    }
+
+    /** Hash Zobrist do estado atual, mantido a cada inserção/remoção. */
+    long getHash() {
+        return hash;
+    }
+
+    /** Cromossomo com os genes, o hash e o fitness do estado atual. */
+    AlgoritmoGenetico.Cromossomo gerarCromossomo() {
+        return new AlgoritmoGenetico.Cromossomo(genes.clone(), numAulas, hash, getFitness());
+    }
+
+    /** Copia o estado atual para um cromossomo existente, sem alocar. */
+    void escreverEm(AlgoritmoGenetico.Cromossomo destino) {
+        destino.atribuir(genes, numAulas, hash, getFitness());
+    }
+
+    // ----- MOVIMENTOS (aplicados) -----
+
+    /** Troca o gene da disciplina (GENE_VAZIO remove a aula) e devolve a variação do fitness. */
+    double mover(int disciplina, long novoGene) {
+        double antes = getFitness();
+        if (genes[disciplina] != AlgoritmoGenetico.GENE_VAZIO) {
+            retirar(disciplina);
+        }
+        if (novoGene != AlgoritmoGenetico.GENE_VAZIO) {
+            inserir(disciplina, novoGene);
+        }
+        return getFitness() - antes;
+    }
+
+    double remover(int disciplina) {
+        return mover(disciplina, AlgoritmoGenetico.GENE_VAZIO);
+    }
+
+    /** Troca sala e horário entre duas aulas alocadas, mantendo os professores. */
+    double trocar(int disciplina, int outra) {
+        long gene = genes[disciplina];
+        long geneOutra = genes[outra];
+        if (disciplina == outra || gene == AlgoritmoGenetico.GENE_VAZIO
+                || geneOutra == AlgoritmoGenetico.GENE_VAZIO) {
+            return 0.0;
+        }
+        double antes = getFitness();
+        retirar(disciplina);
+        retirar(outra);
+        inserir(disciplina, AlgoritmoGenetico.codificarGene(AlgoritmoGenetico.professorDo(gene),
+                AlgoritmoGenetico.salaDo(geneOutra), AlgoritmoGenetico.horarioDo(geneOutra)));
+        inserir(outra, AlgoritmoGenetico.codificarGene(AlgoritmoGenetico.professorDo(geneOutra),
+                AlgoritmoGenetico.salaDo(gene), AlgoritmoGenetico.horarioDo(gene)));
+        return getFitness() - antes;
+    }
+
+    // ----- MOVIMENTOS (apenas consulta, o estado é restaurado) -----
+
+    double deltaMover(int disciplina, long novoGene) {
+        long geneAtual = genes[disciplina];
+        double delta = mover(disciplina, novoGene);
+        mover(disciplina, geneAtual);
+        return delta;
+    }
+
+    double deltaRemover(int disciplina) {
+        return deltaMover(disciplina, AlgoritmoGenetico.GENE_VAZIO);
+    }
+
+    double deltaTrocar(int disciplina, int outra) {
+        long gene = genes[disciplina];
+        long geneOutra = genes[outra];
+        double delta = trocar(disciplina, outra);
+        if (disciplina != outra && gene != AlgoritmoGenetico.GENE_VAZIO
+                && geneOutra != AlgoritmoGenetico.GENE_VAZIO) {
+            retirar(disciplina);
+            retirar(outra);
+            inserir(disciplina, gene);
+            inserir(outra, geneOutra);
+        }
+        return delta;
+    }
+
+    // ----- ESTADO INTERNO -----
+
+    private void limpar() {
+        for (int d = 0; d < numDisciplinas; d++) {
+            long gene = genes[d];
+            if (gene != AlgoritmoGenetico.GENE_VAZIO) {
+                int hor = AlgoritmoGenetico.horarioDo(gene);
+                int celula = hor * numSalas + AlgoritmoGenetico.salaDo(gene);
+                primeiroDaCelula[celula] = -1;
+                alunosNaCelula[celula] = 0;
+                penalizacaoDaCelula[celula] = 0;
+                aulasPorProfessorHorario[hor * numProfessores + AlgoritmoGenetico.professorDo(gene)] = 0;
+                aulasPorHorario[hor] = 0;
+                genes[d] = AlgoritmoGenetico.GENE_VAZIO;
+            }
+        }
+        conflitosTotal = 0;
+        horariosUsados = 0;
+        numAulas = 0;
+        hash = 0;
+    }
+
+    private void inserir(int disciplina, long gene) {
+        inserir(disciplina, gene, true);
+    }
+
+    /** Com pontuar = false a sala/horário fica para ser pontuada por quem chamou. */
+    private void inserir(int disciplina, long gene, boolean pontuar) {
+        int prof = AlgoritmoGenetico.professorDo(gene);
+        int sala = AlgoritmoGenetico.salaDo(gene);
+        int hor = AlgoritmoGenetico.horarioDo(gene);
+
+        genes[disciplina] = gene;
+        hash ^= AlgoritmoGenetico.chaveZobrist(disciplina, gene);
+        numAulas++;
+        if (aulasPorHorario[hor]++ == 0) {
+            horariosUsados++;
+        }
+        conflitosTotal += regras.penalizacaoDaAula(disciplina, prof, hor) + regras.penalizacaoMudanca(disciplina, gene);
+        if (aulasPorProfessorHorario[hor * numProfessores + prof]++ > 0) {
+            conflitosTotal += RegrasFitness.PESO_PROFESSOR_OCUPADO;
+        }
+
+        int celula = hor * numSalas + sala;
+        int primeiro = primeiroDaCelula[celula];
+        proximoNaCelula[disciplina] = primeiro;
+        anteriorNaCelula[disciplina] = -1;
+        if (primeiro != -1) {
+            anteriorNaCelula[primeiro] = disciplina;
+        }
+        primeiroDaCelula[celula] = disciplina;
+
+        if (pontuar) {
+            repontuarCelula(celula);
+        }
+    }
+
+    private void retirar(int disciplina) {
+        long gene = genes[disciplina];
+        int prof = AlgoritmoGenetico.professorDo(gene);
+        int sala = AlgoritmoGenetico.salaDo(gene);
+        int hor = AlgoritmoGenetico.horarioDo(gene);
+        int celula = hor * numSalas + sala;
+
+        int anterior = anteriorNaCelula[disciplina];
+        int proximo = proximoNaCelula[disciplina];
+        if (anterior == -1) {
+            primeiroDaCelula[celula] = proximo;
+        } else {
+            proximoNaCelula[anterior] = proximo;
+        }
+        if (proximo != -1) {
+            anteriorNaCelula[proximo] = anterior;
+        }
+
+        repontuarCelula(celula);
+
+        if (--aulasPorProfessorHorario[hor * numProfessores + prof] > 0) {
+            conflitosTotal -= RegrasFitness.PESO_PROFESSOR_OCUPADO;
+        }
+        conflitosTotal -= regras.penalizacaoDaAula(disciplina, prof, hor) + regras.penalizacaoMudanca(disciplina, gene);
+        if (--aulasPorHorario[hor] == 0) {
+            horariosUsados--;
+        }
+        numAulas--;
+        hash ^= AlgoritmoGenetico.chaveZobrist(disciplina, gene);
+        genes[disciplina] = AlgoritmoGenetico.GENE_VAZIO;
+    }
+
+    /**
+     * Pontua de novo a sala/horário depois de uma aula entrar ou sair: a
+     * superlotação depende da ordem das disciplinas na célula, então a célula
+     * inteira é refeita (O(aulas na célula)).
+     */
+    private void repontuarCelula(int celula) {
+        int penalizacao = regras.pontuarCelula(aulasDaCelula, ordenarAulas(celula), celula % numSalas);
+        conflitosTotal += penalizacao - penalizacaoDaCelula[celula];
+        penalizacaoDaCelula[celula] = penalizacao;
+        alunosNaCelula[celula] = regras.getOcupacao();
+    }
+
+    /** Copia as aulas da célula para aulasDaCelula, em ordem de disciplina, e devolve quantas são. */
+    private int ordenarAulas(int celula) {
+        int quantidade = 0;
+        for (int d = primeiroDaCelula[celula]; d != -1; d = proximoNaCelula[d]) {
+            aulasDaCelula[quantidade++] = d;
+        }
+        Arrays.sort(aulasDaCelula, 0, quantidade);
+        return quantidade;
+    }
+}
@@ -0,0 +1,214 @@
+package src;
+
+import java.util.Arrays;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Avaliação de fitness em lote. Os indivíduos sem fitness conhecido de um
+ * trecho da população são decodificados, {@link #TAMANHO_LOTE} por vez, para
+ * uma estrutura de arrays ({@code int[]} por atributo da aula, em faixas de
+ * {@code numDisciplinas} por indivíduo) e depois pontuados em uma única
+ * passada, sem objetos intermediários. O lote é pequeno para que os arrays
+ * decodificados ainda estejam no cache do processador quando são pontuados.
+ *
+ * As tabelas de ocupação (sala/horário, professor/horário e horário) usam
+ * carimbos: uma entrada só vale se o seu carimbo for o do indivíduo atual, então
+ * nada precisa ser limpo entre um indivíduo e outro. As penalizações vêm de
+ * {@link RegrasFitness}, as mesmas de {@link AvaliadorIncremental}; o resultado
+ * é idêntico ao de {@link AvaliadorIncremental#carregar}, que continua sendo a
+ * verificação ({@code java -ea}).
+ *
+ * Não é thread-safe: cada thread usa a sua instância.
+ */
+class AvaliadorLote {
+    private static final int VAZIA = -1;
+    static final int TAMANHO_LOTE = 16;
+
+    private final int numDisciplinas;
+    private final int numSalas;
+    private final int numProfessores;
+    private final int numHorarios;
+    private final AlgoritmoGenetico algoritmo;
+    private final Problema problema;
+    private final RegrasFitness regras;
+
+    // Estrutura de arrays do lote: posição k * numDisciplinas + d
+    private final int[] celulaDaAula;           // horario * numSalas + sala, ou VAZIA
+    private final int[] professorHorarioDaAula; // horario * numProfessores + professor
+    private final int[] horarioDaAula;
+    private final int[] penalizacaoDaAula;      // Professor não habilitado + indisponível + mudança
+    private Cromossomo[] pendentes = new Cromossomo[64];
+
+    // Tabelas de ocupação com carimbo
+    private int marca;
+    private final int[] carimboCelula;
+    private final int[] primeiroDaCelula;
+    private final int[] aulasNaCelula;
+    private final int[] carimboProfessorHorario;
+    private final int[] carimboHorario;
+    private final int[] proximoNaCelula;
+    private final int[] celulasUsadas;
+    private final int[] aulasDaCelula; // Aulas de uma célula em ordem de disciplina
+
+    /** Avaliador da execução dada: usa o problema e o cache de fitness dela. */
+    AvaliadorLote(AlgoritmoGenetico algoritmo) {
+        this.algoritmo = algoritmo;
+        this.problema = algoritmo.problema;
+        this.numDisciplinas = problema.numDisciplinas;
+        this.numSalas = problema.numSalas;
+        this.numProfessores = problema.numProfessores;
+        this.numHorarios = problema.numHorarios;
+        this.regras = new RegrasFitness(problema);
+
+        this.carimboCelula = new int[numHorarios * numSalas];
+        this.primeiroDaCelula = new int[numHorarios * numSalas];
+        this.aulasNaCelula = new int[numHorarios * numSalas];
+        this.carimboProfessorHorario = new int[numHorarios * numProfessores];
+        this.carimboHorario = new int[numHorarios];
+        this.proximoNaCelula = new int[numDisciplinas];
+        this.celulasUsadas = new int[numDisciplinas];
+        this.aulasDaCelula = new int[numDisciplinas];
+
+        this.celulaDaAula = new int[TAMANHO_LOTE * numDisciplinas];
+        this.professorHorarioDaAula = new int[TAMANHO_LOTE * numDisciplinas];
+        this.horarioDaAula = new int[TAMANHO_LOTE * numDisciplinas];
+        this.penalizacaoDaAula = new int[TAMANHO_LOTE * numDisciplinas];
+    }
+
+    /**
+     * Dá fitness a todos os indivíduos de populacao[inicio, fim) que ainda não
+     * o têm: primeiro pelo cache e, para os que faltarem, em lote.
+     */
+    void avaliar(Cromossomo[] populacao, int inicio, int fim) {
+        int numPendentes = 0;
+        for (int i = inicio; i < fim; i++) {
+            Cromossomo cromossomo = populacao[i];
+            if (cromossomo.fitnessConhecido()) {
+                continue;
+            }
+            double valor = algoritmo.fitnessCache.obter(cromossomo.getHash());
+            if (!Double.isNaN(valor)) {
+                cromossomo.definirFitness(valor);
+                continue;
+            }
+            if (numPendentes == pendentes.length) {
+                pendentes = Arrays.copyOf(pendentes, numPendentes * 2);
+            }
+            pendentes[numPendentes++] = cromossomo;
+        }
+
+        for (int inicioLote = 0; inicioLote < numPendentes; inicioLote += TAMANHO_LOTE) {
+            int tamanho = Math.min(TAMANHO_LOTE, numPendentes - inicioLote);
+            decodificar(pendentes, inicioLote, tamanho);
+            for (int k = 0; k < tamanho; k++) {
+                double valor = pontuar(k);
+                Cromossomo cromossomo = pendentes[inicioLote + k];
+                algoritmo.fitnessCache.guardar(cromossomo.getHash(), valor);
+                cromossomo.definirFitness(valor);
+                pendentes[inicioLote + k] = null;
+                assert valor == algoritmo.calcularFitness(cromossomo) : "avaliação em lote divergente";
+            }
+        }
+    }
+
+    /** Fitness de lote[0, tamanho) sem cache, em saida[0, tamanho) (usado nos benchmarks). */
+    void calcular(Cromossomo[] lote, int tamanho, double[] saida) {
+        for (int inicioLote = 0; inicioLote < tamanho; inicioLote += TAMANHO_LOTE) {
+            int tamanhoLote = Math.min(TAMANHO_LOTE, tamanho - inicioLote);
+            decodificar(lote, inicioLote, tamanhoLote);
+            for (int k = 0; k < tamanhoLote; k++) {
+                saida[inicioLote + k] = pontuar(k);
+            }
+        }
+    }
+
+    // ----- DECODIFICAÇÃO (estrutura de arrays) -----
+
+    private void decodificar(Cromossomo[] lote, int inicio, int tamanho) {
+        for (int k = 0; k < tamanho; k++) {
+            Cromossomo cromossomo = lote[inicio + k];
+            int base = k * numDisciplinas;
+            for (int d = 0; d < numDisciplinas; d++) {
+                long gene = cromossomo.getGene(d);
+                if (gene == AlgoritmoGenetico.GENE_VAZIO) {
+                    celulaDaAula[base + d] = VAZIA;
+                    continue;
+                }
+                int prof = AlgoritmoGenetico.professorDo(gene);
+                int sala = AlgoritmoGenetico.salaDo(gene);
+                int hor = AlgoritmoGenetico.horarioDo(gene);
+                celulaDaAula[base + d] = hor * numSalas + sala;
+                professorHorarioDaAula[base + d] = hor * numProfessores + prof;
+                horarioDaAula[base + d] = hor;
+                penalizacaoDaAula[base + d] = regras.penalizacaoDaAula(d, prof, hor) + regras.penalizacaoMudanca(d, gene);
+            }
+        }
+    }
+
+    // ----- PONTUAÇÃO -----
+
+    private double pontuar(int k) {
+        int atual = proximaMarca();
+        int base = k * numDisciplinas;
+        int numAulas = 0;
+        int horariosUsados = 0;
+        int conflitos = 0;
+        int numCelulasUsadas = 0;
+
+        for (int d = 0; d < numDisciplinas; d++) {
+            int celula = celulaDaAula[base + d];
+            if (celula == VAZIA) {
+                continue;
+            }
+            numAulas++;
+            conflitos += penalizacaoDaAula[base + d];
+
+            int hor = horarioDaAula[base + d];
+            if (carimboHorario[hor] != atual) {
+                carimboHorario[hor] = atual;
+                horariosUsados++;
+            }
+
+            int professorHorario = professorHorarioDaAula[base + d];
+            if (carimboProfessorHorario[professorHorario] != atual) {
+                carimboProfessorHorario[professorHorario] = atual;
+            } else {
+                conflitos += RegrasFitness.PESO_PROFESSOR_OCUPADO;
+            }
+
+            if (carimboCelula[celula] != atual) {
+                carimboCelula[celula] = atual;
+                primeiroDaCelula[celula] = -1;
+                aulasNaCelula[celula] = 0;
+                celulasUsadas[numCelulasUsadas++] = celula;
+            }
+            proximoNaCelula[d] = primeiroDaCelula[celula];
+            primeiroDaCelula[celula] = d;
+            aulasNaCelula[celula]++;
+        }
+
+        // Alunos repetidos e superlotação, célula a célula; a lista está em
+        // ordem decrescente de disciplina e é copiada de trás para frente
+        for (int i = 0; i < numCelulasUsadas; i++) {
+            int celula = celulasUsadas[i];
+            int quantidade = aulasNaCelula[celula];
+            int posicao = quantidade;
+            for (int d = primeiroDaCelula[celula]; d != -1; d = proximoNaCelula[d]) {
+                aulasDaCelula[--posicao] = d;
+            }
+            conflitos += regras.pontuarCelula(aulasDaCelula, quantidade, celula % numSalas);
+        }
+        return problema.calcularFitness(numAulas, horariosUsados, conflitos);
+    }
+
+    private int proximaMarca() {
+        if (marca == Integer.MAX_VALUE) {
+            Arrays.fill(carimboCelula, 0);
+            Arrays.fill(carimboProfessorHorario, 0);
+            Arrays.fill(carimboHorario, 0);
+            marca = 0;
+        }
+        return ++marca;
+    }
+}
@@ -0,0 +1,147 @@
+package src;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Busca local dirigida por conflitos (etapa memética). A cada passo sorteia
+ * uma aula envolvida em algum conflito (ou uma disciplina ainda sem aula) e
+ * aplica o melhor movimento entre mudar o par professor/horário, com a menor
+ * sala livre que comporta a turma, e trocar sala/horário com outra aula. Só
+ * movimentos que melhoram o fitness são aplicados; uma aula sem movimento de
+ * melhoria fica tabu por alguns passos, para a busca seguir pelas outras.
+ * Os deltas vêm do {@link AvaliadorIncremental}, sem reavaliar o cromossomo.
+ *
+ * Não é thread-safe: cada thread usa a sua instância.
+ */
+class BuscaLocal {
+    private static final int MAX_CANDIDATOS = 64; // Pares professor/horário avaliados por passo
+    private static final int TROCAS_POR_PASSO = 8;
+    private static final int DURACAO_TABU = 7;
+
+    private final int numDisciplinas;
+    private final int numHorarios;
+    private final AlgoritmoGenetico algoritmo;
+    private final IndiceRestricoes indice;
+    private final boolean[][] disponibilidadeProfessor;
+
+    private final int[] tabuAte; // Passo até o qual a disciplina não é escolhida
+
+    BuscaLocal(AlgoritmoGenetico algoritmo) {
+        this.algoritmo = algoritmo;
+        this.numDisciplinas = algoritmo.problema.numDisciplinas;
+        this.numHorarios = algoritmo.problema.numHorarios;
+        this.indice = algoritmo.problema.indice;
+        this.disponibilidadeProfessor = algoritmo.problema.disponibilidadeProfessor;
+        this.tabuAte = new int[numDisciplinas];
+    }
+
+    /**
+     * Aplica ao cromossomo até {@code passos} movimentos de melhoria e devolve
+     * o ganho de fitness (0 se nenhum movimento melhorou).
+     */
+    double melhorar(Cromossomo cromossomo, int passos, SplittableRandom random) {
+        AvaliadorIncremental avaliador = algoritmo.avaliadorPorThread.get();
+        avaliador.carregar(cromossomo);
+        double inicial = avaliador.getFitness();
+        Arrays.fill(tabuAte, 0);
+
+        boolean melhorou = false;
+        for (int passo = 1; passo <= passos; passo++) {
+            int disciplina = sortearCandidata(avaliador, passo, random);
+            if (disciplina == -1) {
+                break;
+            }
+            if (aplicarMelhorMovimento(avaliador, disciplina, random)) {
+                melhorou = true;
+            } else {
+                tabuAte[disciplina] = passo + DURACAO_TABU;
+            }
+        }
+
+        if (!melhorou) {
+            return 0.0;
+        }
+        avaliador.escreverEm(cromossomo);
+        assert Math.abs(cromossomo.getFitness() - algoritmo.calcularFitness(cromossomo)) < 1e-9 : "delta de fitness divergente";
+        return cromossomo.getFitness() - inicial;
+    }
+
+    /**
+     * Primeira disciplina fora da lista tabu com conflito ou sem aula, a partir
+     * de uma posição sorteada (percorre em círculo, sem listar todas); -1 se
+     * não houver nenhuma.
+     */
+    private int sortearCandidata(AvaliadorIncremental avaliador, int passo, SplittableRandom random) {
+        int inicio = random.nextInt(numDisciplinas);
+        for (int i = 0; i < numDisciplinas; i++) {
+            int d = inicio + i < numDisciplinas ? inicio + i : inicio + i - numDisciplinas;
+            if (tabuAte[d] >= passo) {
+                continue;
+            }
+            boolean semAula = avaliador.getGene(d) == AlgoritmoGenetico.GENE_VAZIO;
+            if (semAula ? indice.professoresDe(d).length > 0 : avaliador.conflitosDaAula(d) > 0) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    /** Aplica o movimento de maior ganho para a disciplina; false se nenhum melhora. */
+    private boolean aplicarMelhorMovimento(AvaliadorIncremental avaliador, int disciplina, SplittableRandom random) {
+        long geneAtual = avaliador.getGene(disciplina);
+        double melhorGanho = 0.0;
+        long melhorGene = AlgoritmoGenetico.GENE_VAZIO;
+        int melhorTroca = -1;
+
+        // Novo professor/horário: todas as combinações ou, se forem muitas, uma amostra
+        int[] professores = indice.professoresDe(disciplina);
+        int combinacoes = professores.length * numHorarios;
+        int amostras = Math.min(combinacoes, MAX_CANDIDATOS);
+        for (int i = 0; i < amostras; i++) {
+            int combinacao = combinacoes <= MAX_CANDIDATOS ? i : random.nextInt(combinacoes);
+            int professor = professores[combinacao / numHorarios];
+            int horario = combinacao % numHorarios;
+            if (!disponibilidadeProfessor[professor][horario]) {
+                continue;
+            }
+            int sala = algoritmo.escolherSala(avaliador, disciplina, horario);
+            long gene = AlgoritmoGenetico.codificarGene(professor, sala, horario);
+            if (gene == geneAtual) {
+                continue;
+            }
+            double ganho = avaliador.deltaMover(disciplina, gene);
+            if (ganho > melhorGanho) {
+                melhorGanho = ganho;
+                melhorGene = gene;
+            }
+        }
+
+        // Troca de sala/horário com outra aula alocada
+        if (geneAtual != AlgoritmoGenetico.GENE_VAZIO) {
+            for (int i = 0; i < TROCAS_POR_PASSO; i++) {
+                int outra = random.nextInt(numDisciplinas);
+                if (outra == disciplina || avaliador.getGene(outra) == AlgoritmoGenetico.GENE_VAZIO) {
+                    continue;
+                }
+                double ganho = avaliador.deltaTrocar(disciplina, outra);
+                if (ganho > melhorGanho) {
+                    melhorGanho = ganho;
+                    melhorTroca = outra;
+                }
+            }
+        }
+
+        if (melhorTroca != -1) {
+            avaliador.trocar(disciplina, melhorTroca);
+            return true;
+        }
+        if (melhorGene != AlgoritmoGenetico.GENE_VAZIO) {
+            avaliador.mover(disciplina, melhorGene);
+            return true;
+        }
+        return false;
+    }
+}
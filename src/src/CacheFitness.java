@@ -0,0 +1,125 @@
+package src;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de fitness limitado, indexado pelo hash Zobrist (long) do cromossomo.
+ *
+ * A tabela é associativa por conjuntos (4 vias): cada chave só pode ocupar as
+ * vias do seu conjunto e, quando o conjunto está cheio, a vítima é escolhida
+ * pelo algoritmo CLOCK (segunda chance) dentro do conjunto. A memória é fixa
+ * e alocada uma única vez, sem objetos por entrada. O acesso concorrente usa
+ * travas listradas por conjunto.
+ */
+class CacheFitness {
+    private static final int VIAS = 4;
+    private static final int NUM_TRAVAS = 64;
+
+    private static final byte VAZIA = 0;
+    private static final byte OCUPADA = 1;
+    private static final byte REFERENCIADA = 2;
+
+    private final long[] chaves;
+    private final double[] valores;
+    private final byte[] estado;
+    private final byte[] ponteiroRelogio;
+    private final int mascaraConjuntos;
+    private final Object[] travas;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder despejos = new LongAdder();
+
+    /** @param capacidade número aproximado de entradas (arredondado para potência de 2) */
+    CacheFitness(int capacidade) {
+        int numConjuntos = Integer.highestOneBit(Math.max(1, capacidade / VIAS - 1)) << 1;
+        this.mascaraConjuntos = numConjuntos - 1;
+        this.chaves = new long[numConjuntos * VIAS];
+        this.valores = new double[numConjuntos * VIAS];
+        this.estado = new byte[numConjuntos * VIAS];
+        this.ponteiroRelogio = new byte[numConjuntos];
+        this.travas = new Object[NUM_TRAVAS];
+        for (int i = 0; i < NUM_TRAVAS; i++) {
+            travas[i] = new Object();
+        }
+    }
+
+    /** Devolve o fitness guardado ou NaN se a chave não estiver no cache. */
+    double obter(long chave) {
+        int conjunto = conjuntoDa(chave);
+        int base = conjunto * VIAS;
+        synchronized (travas[conjunto & (NUM_TRAVAS - 1)]) {
+            for (int i = base; i < base + VIAS; i++) {
+                if (estado[i] != VAZIA && chaves[i] == chave) {
+                    estado[i] = REFERENCIADA;
+                    acertos.increment();
+                    return valores[i];
+                }
+            }
+        }
+        falhas.increment();
+        return Double.NaN;
+    }
+
+    void guardar(long chave, double valor) {
+        int conjunto = conjuntoDa(chave);
+        int base = conjunto * VIAS;
+        synchronized (travas[conjunto & (NUM_TRAVAS - 1)]) {
+            int livre = -1;
+            for (int i = base; i < base + VIAS; i++) {
+                if (estado[i] == VAZIA) {
+                    if (livre == -1) {
+                        livre = i;
+                    }
+                } else if (chaves[i] == chave) {
+                    valores[i] = valor;
+                    return;
+                }
+            }
+
+            if (livre == -1) {
+                livre = escolherVitima(conjunto, base);
+                despejos.increment();
+            }
+            chaves[livre] = chave;
+            valores[livre] = valor;
+            estado[livre] = OCUPADA;
+        }
+    }
+
+    /** CLOCK: entradas referenciadas ganham uma segunda chance antes de sair. */
+    private int escolherVitima(int conjunto, int base) {
+        int ponteiro = ponteiroRelogio[conjunto];
+        while (estado[base + ponteiro] == REFERENCIADA) {
+            estado[base + ponteiro] = OCUPADA;
+            ponteiro = (ponteiro + 1) % VIAS;
+        }
+        ponteiroRelogio[conjunto] = (byte) ((ponteiro + 1) % VIAS);
+        return base + ponteiro;
+    }
+
+    private int conjuntoDa(long chave) {
+        return (int) (chave ^ (chave >>> 32)) & mascaraConjuntos;
+    }
+
+    int getCapacidade() {
+        return chaves.length;
+    }
+
+    long getAcertos() {
+        return acertos.sum();
+    }
+
+    long getFalhas() {
+        return falhas.sum();
+    }
+
+    long getDespejos() {
+        return despejos.sum();
+    }
+
+    double getTaxaAcerto() {
+        long total = getAcertos() + getFalhas();
+        return total == 0 ? 0.0 : (double) getAcertos() / total;
+    }
+}
@@ -0,0 +1,177 @@
+package src;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Checkpoint binário do estado da evolução, montado em um único buffer e
+ * gravado e lido de uma vez por um {@link FileChannel}. O arquivo guarda, em blocos
+ * contíguos (estrutura de arrays), tudo o que a retomada precisa sem
+ * recalcular nada:
+ *
+ * <pre>
+ * cabeçalho (48 bytes): mágico, versão, impressão digital da instância,
+ *                       semente mestre, semente do motor, geração, tamanho,
+ *                       número de disciplinas, número de registros
+ * double[registros]     fitness de cada indivíduo
+ * long[registros]       hash Zobrist de cada indivíduo
+ * long[registros * D]   genes
+ * int[registros]        número de aulas de cada indivíduo
+ * </pre>
+ *
+ * Os registros são a população seguida da melhor solução até agora, que
+ * pode ter vindo de uma geração anterior.
+ *
+ * A gravação vai para um arquivo temporário que só substitui o checkpoint
+ * anterior depois de completo, então uma interrupção no meio da escrita
+ * nunca deixa um checkpoint corrompido. O arquivo não fica mapeado em
+ * memória: no Windows um arquivo mapeado não pode ser substituído, e a
+ * retomada lê o checkpoint que a próxima gravação vai substituir.
+ */
+class Checkpoint {
+    private static final int MAGICO = 0x41474350; // "AGCP"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 48;
+
+    /** Estado restaurado: continua a partir de {@code geracao} com o motor ressemeado. */
+    static final class Estado {
+        final int geracao;
+        final long sementeMotor;
+        final Cromossomo[] populacao;
+        final Cromossomo melhor;
+
+        Estado(int geracao, long sementeMotor, Cromossomo[] populacao, Cromossomo melhor) {
+            this.geracao = geracao;
+            this.sementeMotor = sementeMotor;
+            this.populacao = populacao;
+            this.melhor = melhor;
+        }
+    }
+
+    private Checkpoint() {
+    }
+
+    static void salvar(Path arquivo, long impressaoDigital, long sementeMestre, int geracao,
+            long sementeMotor, Cromossomo[] populacao, Cromossomo melhor) throws IOException {
+        int tamanho = populacao.length;
+        Cromossomo[] registros = Arrays.copyOf(populacao, tamanho + 1);
+        registros[tamanho] = melhor != null ? melhor : populacao[0];
+        int numRegistros = registros.length;
+        int numDisciplinas = registros[0].getNumGenes();
+        long bytes = TAMANHO_CABECALHO + (long) numRegistros * (Double.BYTES + Long.BYTES + Integer.BYTES)
+                + (long) numRegistros * numDisciplinas * Long.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("população grande demais para um único buffer (" + bytes + " bytes)");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGICO).putInt(VERSAO)
+                .putLong(impressaoDigital)
+                .putLong(sementeMestre)
+                .putLong(sementeMotor)
+                .putInt(geracao).putInt(tamanho)
+                .putInt(numDisciplinas).putInt(numRegistros);
+
+        int posicao = TAMANHO_CABECALHO;
+        DoubleBuffer fitness = buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        for (Cromossomo cromossomo : registros) {
+            fitness.put(cromossomo.getFitness());
+        }
+        posicao += numRegistros * Double.BYTES;
+
+        LongBuffer hashes = buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        for (Cromossomo cromossomo : registros) {
+            hashes.put(cromossomo.getHash());
+        }
+        posicao += numRegistros * Long.BYTES;
+
+        LongBuffer genes = buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        for (Cromossomo cromossomo : registros) {
+            genes.put(cromossomo.copiarGenes());
+        }
+        posicao += numRegistros * numDisciplinas * Long.BYTES;
+
+        IntBuffer numAulas = buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        for (Cromossomo cromossomo : registros) {
+            numAulas.put(cromossomo.getNumAulas());
+        }
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Lê o checkpoint; falha se ele pertencer a outra instância do problema. */
+    static Estado carregar(Path arquivo, long impressaoDigital) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException(arquivo + " não é um checkpoint");
+            }
+            buffer = ByteBuffer.allocate((int) canal.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && canal.read(buffer) >= 0) {
+                // Lê até encher o buffer
+            }
+            buffer.flip();
+        }
+        if (buffer.limit() < TAMANHO_CABECALHO || buffer.getInt() != MAGICO) {
+            throw new IOException(arquivo + " não é um checkpoint");
+        }
+        int versao = buffer.getInt();
+        if (versao != VERSAO) {
+            throw new IOException("versão de checkpoint não suportada: " + versao);
+        }
+        long impressaoGravada = buffer.getLong();
+        long sementeMestre = buffer.getLong();
+        if (impressaoGravada != impressaoDigital) {
+            throw new IOException("o checkpoint é de outra instância do problema (gerada com semente "
+                    + sementeMestre + ")");
+        }
+        long sementeMotor = buffer.getLong();
+        int geracao = buffer.getInt();
+        int tamanho = buffer.getInt();
+        int numDisciplinas = buffer.getInt();
+        int numRegistros = buffer.getInt();
+
+        int posicao = TAMANHO_CABECALHO;
+        double[] fitness = new double[numRegistros];
+        buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(fitness);
+        posicao += numRegistros * Double.BYTES;
+
+        long[] hashes = new long[numRegistros];
+        buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(hashes);
+        posicao += numRegistros * Long.BYTES;
+
+        LongBuffer genes = buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        posicao += numRegistros * numDisciplinas * Long.BYTES;
+
+        IntBuffer numAulas = buffer.position(posicao).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+
+        Cromossomo[] registros = new Cromossomo[numRegistros];
+        for (int i = 0; i < numRegistros; i++) {
+            long[] genesIndividuo = new long[numDisciplinas];
+            genes.get(genesIndividuo);
+            registros[i] = new Cromossomo(genesIndividuo, numAulas.get(), hashes[i], fitness[i]);
+        }
+        return new Estado(geracao, sementeMotor, Arrays.copyOf(registros, tamanho), registros[tamanho]);
+    }
+}
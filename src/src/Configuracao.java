@@ -0,0 +1,77 @@
+package src;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Configuração de uma execução, em camadas: as chaves próprias da execução
+ * (ex.: as enviadas a um trabalho do serviço) valem sobre as propriedades de
+ * sistema ({@code -Dchave=valor}), que valem sobre o config.properties.
+ * Valores em branco contam como ausentes e ficam com o padrão de quem lê.
+ */
+final class Configuracao {
+    private final Properties propria;
+    private final Properties arquivo;
+
+    private Configuracao(Properties propria, Properties arquivo) {
+        this.propria = propria;
+        this.arquivo = arquivo;
+    }
+
+    /** Propriedades de sistema sobre o config.properties do diretório atual. */
+    static Configuracao padrao() {
+        return new Configuracao(new Properties(), carregar("config.properties"));
+    }
+
+    static Properties carregar(String arquivo) {
+        Properties propriedades = new Properties();
+        try (Reader reader = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            propriedades.load(reader);
+        } catch (IOException e) {
+            // Sem arquivo de configuração: ficam os valores padrão
+        }
+        return propriedades;
+    }
+
+    /** Esta configuração com as chaves dadas valendo sobre todas as camadas. */
+    Configuracao com(Map<String, String> chaves) {
+        Properties nova = new Properties();
+        nova.putAll(propria);
+        nova.putAll(chaves);
+        return new Configuracao(nova, arquivo);
+    }
+
+    String ler(String chave) {
+        String valor = propria.getProperty(chave);
+        return valor != null ? valor : System.getProperty(chave, arquivo.getProperty(chave));
+    }
+
+    long lerLong(String chave, long padrao) {
+        String valor = ler(chave);
+        return valor == null || valor.isBlank() ? padrao : Long.parseLong(valor.trim());
+    }
+
+    double lerDouble(String chave, double padrao) {
+        String valor = ler(chave);
+        return valor == null || valor.isBlank() ? padrao : Double.parseDouble(valor.trim());
+    }
+
+    int lerInt(String chave, int padrao) {
+        return (int) lerLong(chave, padrao);
+    }
+
+    boolean lerBooleano(String chave, boolean padrao) {
+        String valor = ler(chave);
+        return valor == null || valor.isBlank() ? padrao : Boolean.parseBoolean(valor.trim());
+    }
+
+    String lerTexto(String chave, String padrao) {
+        String valor = ler(chave);
+        return valor == null || valor.isBlank() ? padrao : valor.trim();
+    }
+}
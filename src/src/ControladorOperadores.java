@@ -0,0 +1,234 @@
+package src;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Escolha adaptativa dos operadores genéticos (operadores_adaptativos): um
+ * bandido de vários braços por perseguição adaptativa (adaptive pursuit).
+ * Cada braço é um operador de {@link Operadores}, incluindo "não cruzar" e
+ * "não mutar", então as taxas de cruzamento e de mutação deixam de ser fixas:
+ * são a probabilidade somada dos braços que fazem alguma coisa.
+ *
+ * A recompensa de um braço é o ganho de fitness por nanossegundo dos filhos
+ * que ele ajudou a produzir: o ganho do filho sobre o melhor dos pais
+ * dividido por tudo o que o filho custou (cruzamento, mutação e avaliação).
+ * Cada filho credita o mesmo resultado ao seu cruzamento e à sua mutação,
+ * então cada braço é medido na média das escolhas do outro. Só os filhos
+ * mutados carregam o avaliador incremental; os outros são avaliados em lote
+ * pelo motor, com o cache, e a parte deles no tempo do lote entra no custo.
+ * Com isso "não mutar" ganha quando a mutação não paga o seu custo. Os
+ * tempos são de System.nanoTime na thread que produz o filho, que não
+ * espera por nada no meio, então equivalem ao tempo de CPU.
+ *
+ * Dentro de uma geração os blocos sorteiam de probabilidades fixas e cada
+ * filho anota o seu resultado só na sua posição; entre gerações o
+ * controlador soma as anotações, atualiza a qualidade de cada braço
+ * (média exponencial da recompensa) e aproxima a probabilidade do melhor
+ * braço do máximo e a dos outros do mínimo. Como os tempos entram na
+ * recompensa, a execução deixa de ser reproduzível bit a bit.
+ */
+final class ControladorOperadores {
+    private static final double PROBABILIDADE_MINIMA_TOTAL = 0.2; // Dividida entre os braços: exploração
+    private static final double TAXA_QUALIDADE = 0.3; // Peso da geração na média da recompensa
+    private static final double TAXA_PERSEGUICAO = 0.3; // Velocidade com que as probabilidades mudam
+
+    /** Um operador com as suas estatísticas acumuladas e a sua probabilidade atual. */
+    static final class Braco {
+        final String nome;
+        long usos;
+        long melhorias;
+        double ganho;
+        long nanos;
+        double qualidade;
+        double probabilidade;
+
+        Braco(String nome, double probabilidade) {
+            this.nome = nome;
+            this.probabilidade = probabilidade;
+        }
+    }
+
+    private final AlgoritmoGenetico algoritmo;
+    private final Operadores.Cruzamento[] cruzamentos;
+    private final Operadores.Mutacao[] mutacoes;
+    private final Braco[] bracosCruzamento;
+    private final Braco[] bracosMutacao;
+
+    // Anotações da geração, uma posição por filho
+    private final int[] cruzamentoDoFilho;
+    private final int[] mutacaoDoFilho;
+    private final double[] referencia; // Fitness do melhor pai
+    private final long[] nanosFilho;
+    private final double[] ganhos;
+
+    // Totais da geração por braço, reaproveitados pelos dois grupos
+    private final double[] ganhoGeracao;
+    private final long[] nanosGeracao;
+
+    ControladorOperadores(AlgoritmoGenetico algoritmo, int tamanhoPopulacao) {
+        this.algoritmo = algoritmo;
+        this.cruzamentos = new Operadores.Cruzamento[] { Operadores.SEM_CRUZAMENTO, Operadores.PONTO_UNICO,
+                Operadores.UNIFORME, new Operadores.PreservaHorarios(algoritmo.problema) };
+        this.mutacoes = new Operadores.Mutacao[] { Operadores.SEM_MUTACAO, algoritmo.moverAula,
+                new Operadores.TrocarHorarios(algoritmo), new Operadores.TrocarSalas(algoritmo),
+                new Operadores.TrocarProfessor(algoritmo), new Operadores.RemoverReinserir(algoritmo) };
+        this.bracosCruzamento = new Braco[cruzamentos.length];
+        for (int i = 0; i < cruzamentos.length; i++) {
+            bracosCruzamento[i] = new Braco(cruzamentos[i].nome(), 1.0 / cruzamentos.length);
+        }
+        this.bracosMutacao = new Braco[mutacoes.length];
+        for (int i = 0; i < mutacoes.length; i++) {
+            bracosMutacao[i] = new Braco(mutacoes[i].nome(), 1.0 / mutacoes.length);
+        }
+        this.cruzamentoDoFilho = new int[tamanhoPopulacao];
+        this.mutacaoDoFilho = new int[tamanhoPopulacao];
+        this.referencia = new double[tamanhoPopulacao];
+        this.nanosFilho = new long[tamanhoPopulacao];
+        this.ganhos = new double[tamanhoPopulacao];
+        this.ganhoGeracao = new double[Math.max(cruzamentos.length, mutacoes.length)];
+        this.nanosGeracao = new long[ganhoGeracao.length];
+    }
+
+    /**
+     * Produz o filho da posição i: sorteia e aplica um cruzamento e uma
+     * mutação, anotando o tempo gasto. O filho mutado sai avaliado; o não
+     * mutado fica para a avaliação em lote do motor. Chamado pelos blocos do
+     * motor em paralelo, cada posição por uma thread.
+     */
+    void reproduzir(int i, Cromossomo pai1, Cromossomo pai2, Cromossomo filho, SplittableRandom random) {
+        int c = sortear(bracosCruzamento, random);
+        int m = sortear(bracosMutacao, random);
+
+        long inicio = System.nanoTime();
+        cruzamentos[c].cruzar(pai1, pai2, filho, random);
+        if (mutacoes[m] != Operadores.SEM_MUTACAO) {
+            algoritmo.mutar(filho, mutacoes[m], random); // Avalia o filho uma única vez
+        }
+        nanosFilho[i] = System.nanoTime() - inicio;
+
+        cruzamentoDoFilho[i] = c;
+        mutacaoDoFilho[i] = m;
+        referencia[i] = Math.max(pai1.getFitness(), pai2.getFitness());
+    }
+
+    /**
+     * Divide o tempo da avaliação em lote de filhos[inicio, fim) entre os
+     * filhos do intervalo que ela avaliou (os que não foram mutados).
+     */
+    void registrarAvaliacao(int inicio, int fim, long nanos) {
+        int avaliados = 0;
+        for (int i = inicio; i < fim; i++) {
+            if (mutacoes[mutacaoDoFilho[i]] == Operadores.SEM_MUTACAO) {
+                avaliados++;
+            }
+        }
+        for (int i = inicio; i < fim && avaliados > 0; i++) {
+            if (mutacoes[mutacaoDoFilho[i]] == Operadores.SEM_MUTACAO) {
+                nanosFilho[i] += nanos / avaliados;
+            }
+        }
+    }
+
+    /** Credita o resultado dos filhos[inicio, fim), já avaliados, aos seus braços e atualiza as probabilidades. */
+    void atualizar(Cromossomo[] filhos, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            // Piorar não é punido além de não render nada
+            ganhos[i] = Math.max(0.0, filhos[i].getFitness() - referencia[i]);
+        }
+        atualizar(bracosCruzamento, cruzamentoDoFilho, inicio, fim);
+        atualizar(bracosMutacao, mutacaoDoFilho, inicio, fim);
+    }
+
+    private void atualizar(Braco[] bracos, int[] bracoDoFilho, int inicio, int fim) {
+        Arrays.fill(ganhoGeracao, 0, bracos.length, 0.0);
+        Arrays.fill(nanosGeracao, 0, bracos.length, 0L);
+        for (int i = inicio; i < fim; i++) {
+            Braco braco = bracos[bracoDoFilho[i]];
+            braco.usos++;
+            braco.ganho += ganhos[i];
+            braco.nanos += nanosFilho[i];
+            if (ganhos[i] > 0) {
+                braco.melhorias++;
+            }
+            ganhoGeracao[bracoDoFilho[i]] += ganhos[i];
+            nanosGeracao[bracoDoFilho[i]] += nanosFilho[i];
+        }
+
+        int melhor = -1;
+        for (int b = 0; b < bracos.length; b++) {
+            if (nanosGeracao[b] > 0) {
+                double recompensa = ganhoGeracao[b] / nanosGeracao[b];
+                bracos[b].qualidade += TAXA_QUALIDADE * (recompensa - bracos[b].qualidade);
+            }
+            if (bracos[b].qualidade > 0 && (melhor < 0 || bracos[b].qualidade > bracos[melhor].qualidade)) {
+                melhor = b;
+            }
+        }
+        if (melhor < 0) {
+            return; // Nenhum braço rendeu nada ainda: mantém as probabilidades
+        }
+        double minima = PROBABILIDADE_MINIMA_TOTAL / bracos.length;
+        double maxima = 1.0 - (bracos.length - 1) * minima;
+        for (int b = 0; b < bracos.length; b++) {
+            double alvo = b == melhor ? maxima : minima;
+            bracos[b].probabilidade += TAXA_PERSEGUICAO * (alvo - bracos[b].probabilidade);
+        }
+    }
+
+    private static int sortear(Braco[] bracos, SplittableRandom random) {
+        double sorteio = random.nextDouble();
+        for (int b = 0; b < bracos.length - 1; b++) {
+            sorteio -= bracos[b].probabilidade;
+            if (sorteio < 0) {
+                return b;
+            }
+        }
+        return bracos.length - 1;
+    }
+
+    /** Probabilidade de cruzar de fato (todos os braços menos "não cruzar"). */
+    double getTaxaCruzamento() {
+        return 1.0 - bracosCruzamento[0].probabilidade;
+    }
+
+    /** Probabilidade de mutar de fato (todos os braços menos "não mutar"). */
+    double getTaxaMutacao() {
+        return 1.0 - bracosMutacao[0].probabilidade;
+    }
+
+    String getPreferidos() {
+        return preferido(bracosCruzamento).nome + " + " + preferido(bracosMutacao).nome;
+    }
+
+    private static Braco preferido(Braco[] bracos) {
+        Braco melhor = bracos[0];
+        for (Braco braco : bracos) {
+            if (braco.probabilidade > melhor.probabilidade) {
+                melhor = braco;
+            }
+        }
+        return melhor;
+    }
+
+    /** Tabela com uso, taxa de melhoria, ganho por tempo e probabilidade final de cada operador. */
+    void mostrarEstatisticas(PrintStream saida) {
+        saida.println("\n🎛️ OPERADORES (perseguição adaptativa):");
+        saida.println("  Operador          |     Usos | Melhoram | Ganho médio | ns por filho | Ganho por ms | Probabilidade");
+        mostrar(saida, bracosCruzamento);
+        mostrar(saida, bracosMutacao);
+        saida.printf("  Taxas finais: cruzamento %.2f, mutação %.2f%n", getTaxaCruzamento(), getTaxaMutacao());
+    }
+
+    private static void mostrar(PrintStream saida, Braco[] bracos) {
+        for (Braco braco : bracos) {
+            long usos = Math.max(1, braco.usos);
+            saida.printf("  %-17s | %8d | %7.1f%% | %11.6f | %12.0f | %12.4f | %12.1f%%%n", braco.nome, braco.usos,
+                    100.0 * braco.melhorias / usos, braco.ganho / usos, (double) braco.nanos / usos,
+                    braco.nanos == 0 ? 0.0 : braco.ganho / braco.nanos * 1e6, 100.0 * braco.probabilidade);
+        }
+    }
+}
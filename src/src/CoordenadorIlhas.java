@@ -0,0 +1,220 @@
+package src;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Coordenador das ilhas remotas: aceita as conexões, confere que todas usam a
+ * mesma instância, repassa os migrantes de cada ilha às vizinhas (anel ou
+ * topologia completa), acompanha a melhor solução global e encerra todas as
+ * ilhas quando a primeira atinge o critério de parada ou o fitness alvo é
+ * alcançado. Não evolui população nenhuma: é leve o bastante para rodar ao
+ * lado de uma das ilhas.
+ *
+ * Cada ilha é atendida por uma thread própria que lê as mensagens dela; o
+ * envio para uma ilha é sincronizado na conexão, já que várias threads podem
+ * encaminhar migrantes para ela ao mesmo tempo.
+ */
+class CoordenadorIlhas {
+    // Prazo para uma conexão nova enviar a apresentação (OLA e impressão digital)
+    private static final int TEMPO_APRESENTACAO_MS = 5000;
+
+    private final AlgoritmoGenetico algoritmo;
+    private final int numIlhas;
+    private final ModeloIlhas.Topologia topologia;
+    private final long impressaoDigital;
+    private final Conexao[] conexoes;
+    private final CountDownLatch encerradas;
+    private final AtomicBoolean paradaEnviada = new AtomicBoolean();
+
+    CoordenadorIlhas(AlgoritmoGenetico algoritmo, int numIlhas, ModeloIlhas.Topologia topologia) {
+        this.algoritmo = algoritmo;
+        this.numIlhas = numIlhas;
+        this.topologia = topologia;
+        this.impressaoDigital = algoritmo.problema.instancia.impressaoDigital();
+        this.conexoes = new Conexao[numIlhas];
+        this.encerradas = new CountDownLatch(numIlhas);
+    }
+
+    /**
+     * Espera as numIlhas ilhas na porta, libera todas juntas e atende até que
+     * cada uma envie o seu resultado final (ou caia). A melhor solução global
+     * fica em {@code melhor} e o motivo da parada em {@code criterio}.
+     */
+    void executar(int porta, CriterioParada criterio, MelhorSolucao melhor, double fitnessAlvo)
+            throws IOException, InterruptedException {
+        try (ServerSocket servidor = new ServerSocket(porta)) {
+            algoritmo.saida.printf("🌐 Coordenador aguardando %d ilhas na porta %d%n", numIlhas, porta);
+            int conectadas = 0;
+            while (conectadas < numIlhas) {
+                Socket socket = servidor.accept();
+                Conexao conexao;
+                try {
+                    // Quem conecta e não se apresenta não pode travar a espera pelas outras ilhas
+                    socket.setSoTimeout(TEMPO_APRESENTACAO_MS);
+                    conexao = new Conexao(socket);
+                    byte tipo = conexao.entrada.readByte();
+                    if (tipo != ProtocoloIlhas.OLA || conexao.entrada.readLong() != impressaoDigital) {
+                        String motivo = "instância diferente da do coordenador (confira semente e dados)";
+                        conexao.recusar(motivo);
+                        algoritmo.saida.printf("⚠️ Conexão de %s recusada: %s%n", socket.getRemoteSocketAddress(),
+                                motivo);
+                        continue;
+                    }
+                    socket.setSoTimeout(0);
+                } catch (IOException e) {
+                    String motivo = e instanceof SocketTimeoutException
+                            ? "não se apresentou em " + TEMPO_APRESENTACAO_MS / 1000 + " s"
+                            : "apresentação interrompida (" + e.getClass().getSimpleName() + ")";
+                    algoritmo.saida.printf("⚠️ Conexão de %s recusada: %s%n", socket.getRemoteSocketAddress(), motivo);
+                    socket.close();
+                    continue;
+                }
+                conexoes[conectadas++] = conexao;
+                algoritmo.saida.printf("🌐 Ilha %d conectada de %s%n", conectadas - 1, conexao.socket.getRemoteSocketAddress());
+            }
+        }
+
+        // Todas partem juntas: nenhuma envia migrantes antes de as vizinhas existirem
+        for (int ilha = 0; ilha < numIlhas; ilha++) {
+            conexoes[ilha].enviarBoasVindas(ilha, numIlhas);
+        }
+        for (int ilha = 0; ilha < numIlhas; ilha++) {
+            int id = ilha;
+            Thread leitor = new Thread(() -> atender(id, criterio, melhor, fitnessAlvo), "coordenador-ilha-" + id);
+            leitor.setDaemon(true);
+            leitor.start();
+        }
+        encerradas.await();
+    }
+
+    private void atender(int ilha, CriterioParada criterio, MelhorSolucao melhor, double fitnessAlvo) {
+        Conexao conexao = conexoes[ilha];
+        try {
+            while (true) {
+                byte tipo = conexao.entrada.readByte();
+                if (tipo == ProtocoloIlhas.MIGRANTES) {
+                    encaminhar(ilha, ProtocoloIlhas.lerMigrantes(conexao.entrada, algoritmo.problema, algoritmo.populacao));
+                } else if (tipo == ProtocoloIlhas.MELHOR || tipo == ProtocoloIlhas.FIM) {
+                    Cromossomo candidato = algoritmo.avaliar(ProtocoloIlhas.lerCromossomo(conexao.entrada,
+                            algoritmo.problema));
+                    if (melhor.oferecer(candidato)) {
+                        algoritmo.saida.printf("🌐 Melhor global: %.4f (ilha %d)%n", candidato.getFitness(), ilha);
+                    }
+                    if (tipo == ProtocoloIlhas.FIM) {
+                        pararTodas(criterio, "ilha " + ilha + " atingiu o critério de parada");
+                        return;
+                    }
+                    if (candidato.getFitness() >= fitnessAlvo) {
+                        pararTodas(criterio, String.format("fitness alvo %.2f alcançado", fitnessAlvo));
+                    }
+                } else {
+                    throw new IOException("mensagem desconhecida: " + tipo);
+                }
+            }
+        } catch (EOFException e) {
+            algoritmo.saida.printf("⚠️ Ilha %d desconectou sem enviar o resultado final%n", ilha);
+        } catch (IOException e) {
+            System.err.printf("Erro na conexão com a ilha %d: %s%n", ilha, e.getMessage());
+        } finally {
+            conexao.fechar();
+            encerradas.countDown();
+        }
+    }
+
+    private void encaminhar(int origem, List<Cromossomo> migrantes) {
+        if (numIlhas < 2) {
+            return;
+        }
+        if (topologia == ModeloIlhas.Topologia.ANEL) {
+            conexoes[(origem + 1) % numIlhas].enviarMigrantes(migrantes);
+            return;
+        }
+        for (int destino = 0; destino < numIlhas; destino++) {
+            if (destino != origem) {
+                conexoes[destino].enviarMigrantes(migrantes);
+            }
+        }
+    }
+
+    private void pararTodas(CriterioParada criterio, String motivo) {
+        if (!paradaEnviada.compareAndSet(false, true)) {
+            return;
+        }
+        criterio.interromper(motivo);
+        for (Conexao conexao : conexoes) {
+            conexao.enviarParada();
+        }
+    }
+
+    /** Uma ilha conectada. Falhas de envio são ignoradas: a leitura detecta a queda. */
+    private static final class Conexao {
+        final Socket socket;
+        final DataInputStream entrada;
+        final DataOutputStream saida;
+
+        Conexao(Socket socket) throws IOException {
+            this.socket = socket;
+            this.socket.setTcpNoDelay(true);
+            this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.saida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        synchronized void enviarBoasVindas(int ilha, int numIlhas) throws IOException {
+            saida.writeByte(ProtocoloIlhas.BOAS_VINDAS);
+            saida.writeInt(ilha);
+            saida.writeInt(numIlhas);
+            saida.flush();
+        }
+
+        synchronized void enviarMigrantes(List<Cromossomo> migrantes) {
+            try {
+                saida.writeByte(ProtocoloIlhas.MIGRANTES);
+                ProtocoloIlhas.escreverMigrantes(saida, migrantes);
+                saida.flush();
+            } catch (IOException e) {
+                // Ilha já encerrada
+            }
+        }
+
+        synchronized void enviarParada() {
+            try {
+                saida.writeByte(ProtocoloIlhas.PARAR);
+                saida.flush();
+            } catch (IOException e) {
+                // Ilha já encerrada
+            }
+        }
+
+        synchronized void recusar(String motivo) {
+            try {
+                saida.writeByte(ProtocoloIlhas.RECUSADA);
+                saida.writeUTF(motivo);
+                saida.flush();
+            } catch (IOException e) {
+                // A ilha recusada já se desconectou
+            }
+            fechar();
+        }
+
+        void fechar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nada a fazer
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package src;
+
+/**
+ * Critérios de parada da evolução: limite de gerações, fitness alvo
+ * alcançado, gerações seguidas sem melhoria e prazo de tempo de relógio.
+ * Pode ser consultado por várias ilhas ao mesmo tempo e interrompido de
+ * outra thread com {@link #interromper(String)}.
+ *
+ * Como todo modo de evolução consulta o critério a cada geração, ele também
+ * é o ponto em que um {@link ObservadorGeracao} acompanha o progresso.
+ */
+class CriterioParada {
+
+    /** Recebe cada geração consultada, com o melhor fitness visto até ela. */
+    interface ObservadorGeracao {
+        void geracao(int geracao, double melhorFitness, boolean parar);
+    }
+
+    private static final double TOLERANCIA_MELHORIA = 1e-9;
+
+    private final int maxGeracoes;
+    private final double fitnessAlvo;
+    private final int maxGeracoesSemMelhoria;
+    private final long prazoNanos;
+
+    private double melhorFitness = Double.NEGATIVE_INFINITY;
+    private int geracaoDaMelhoria;
+    private volatile String motivo;
+    private ObservadorGeracao observador;
+
+    /**
+     * @param fitnessAlvo            fitness que encerra a busca (> 1 desativa)
+     * @param maxGeracoesSemMelhoria gerações seguidas sem melhoria (0 desativa)
+     * @param tempoLimiteSegundos    prazo a partir de agora (0 desativa)
+     */
+    CriterioParada(int maxGeracoes, double fitnessAlvo, int maxGeracoesSemMelhoria, double tempoLimiteSegundos) {
+        this.maxGeracoes = maxGeracoes;
+        this.fitnessAlvo = fitnessAlvo;
+        this.maxGeracoesSemMelhoria = maxGeracoesSemMelhoria;
+        this.prazoNanos = tempoLimiteSegundos > 0
+                ? System.nanoTime() + (long) (tempoLimiteSegundos * 1_000_000_000L)
+                : Long.MAX_VALUE;
+    }
+
+    /** Registra o melhor fitness após a geração e informa se a busca deve parar. */
+    synchronized boolean deveParar(int geracao, double fitness) {
+        if (motivo != null) {
+            notificar(geracao);
+            return true;
+        }
+        if (fitness > melhorFitness + TOLERANCIA_MELHORIA) {
+            melhorFitness = fitness;
+            geracaoDaMelhoria = geracao;
+        }
+
+        if (geracao + 1 >= maxGeracoes) {
+            motivo = "limite de " + maxGeracoes + " gerações";
+        } else if (melhorFitness >= fitnessAlvo) {
+            motivo = String.format("fitness alvo %.2f alcançado", fitnessAlvo);
+        } else if (maxGeracoesSemMelhoria > 0 && geracao - geracaoDaMelhoria >= maxGeracoesSemMelhoria) {
+            motivo = maxGeracoesSemMelhoria + " gerações sem melhoria";
+        } else if (prazoNanos != Long.MAX_VALUE && System.nanoTime() - prazoNanos >= 0) {
+            motivo = "tempo limite esgotado";
+        }
+        notificar(geracao);
+        return motivo != null;
+    }
+
+    private void notificar(int geracao) {
+        if (observador != null) {
+            observador.geracao(geracao, melhorFitness, motivo != null);
+        }
+    }
+
+    /** Passa a avisar o observador a cada consulta; definir antes de a evolução começar. */
+    synchronized void observar(ObservadorGeracao novoObservador) {
+        this.observador = novoObservador;
+    }
+
+    /** Pede a parada a partir de qualquer thread; vale na próxima consulta. */
+    void interromper(String motivoExterno) {
+        if (motivo == null) {
+            motivo = motivoExterno;
+        }
+    }
+
+    boolean parou() {
+        return motivo != null;
+    }
+
+    String getMotivo() {
+        return motivo;
+    }
+}
@@ -0,0 +1,91 @@
+package src;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR emitido ao fim de cada geração, com as mesmas métricas da saída
+ * JSONL. Sem gravação JFR ativa o custo é só a checagem de
+ * {@link #isEnabled()}. Para gravar:
+ * {@code java -XX:StartFlightRecording=filename=ag.jfr -cp ... src.AlgoritmoGenetico}.
+ */
+@Name("algoritmogenetico.Geracao")
+@Label("Geração")
+@Category({ "Algoritmo Genético" })
+@Description("Métricas de uma geração da evolução")
+@StackTrace(false)
+class EventoGeracao extends Event {
+    @Label("Geração")
+    int geracao;
+
+    @Label("Melhor fitness")
+    double melhorFitness;
+
+    @Label("Pior fitness")
+    double piorFitness;
+
+    @Label("Tempo da geração")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoGeracao;
+
+    @Label("Tempo de seleção da elite")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoSelecao;
+
+    @Label("Tempo de busca local")
+    @Description("Reparo da elite dirigido por conflitos (modo memético)")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoBuscaLocal;
+
+    @Label("Tempo de reprodução")
+    @Description("Torneio, cruzamento e mutação, somados entre as threads")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoReproducao;
+
+    @Label("Tempo de avaliação")
+    @Description("Cálculo de fitness dos filhos, somado entre as threads")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoAvaliacao;
+
+    @Label("Taxa de acerto do cache")
+    @Percentage
+    double taxaAcertoCache;
+
+    @Label("Bytes alocados")
+    @DataAmount(DataAmount.BYTES)
+    long bytesAlocados;
+
+    @Label("Genótipos distintos")
+    int genotiposDistintos;
+
+    @Label("Duplicatas suprimidas")
+    @Description("Filhos repetidos mutados de novo antes da avaliação (suprimir_duplicatas)")
+    int duplicatasSuprimidas;
+
+    @Label("Distância média")
+    @Description("Distância de Hamming média entre pares de indivíduos, em genes")
+    double distanciaMedia;
+
+    @Label("Conflitos de professor")
+    int conflitosProfessor;
+
+    @Label("Conflitos de disponibilidade")
+    int conflitosDisponibilidade;
+
+    @Label("Conflitos de alunos")
+    int conflitosAluno;
+
+    @Label("Conflitos de capacidade")
+    int conflitosCapacidade;
+
+    @Label("Conflitos de mudança")
+    @Description("Aulas diferentes da solução anterior (só na reprogramação)")
+    int conflitosMudanca;
+}
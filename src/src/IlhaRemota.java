@@ -0,0 +1,157 @@
+package src;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Ilha que roda em um processo próprio e troca migrantes com as outras por
+ * meio do {@link CoordenadorIlhas}. Dentro do processo a subpopulação evolui
+ * com o {@link MotorGeracional} usando todos os núcleos locais; a cada
+ * intervalo de migração a ilha envia cópias dos seus melhores indivíduos e o
+ * seu melhor ao coordenador e incorpora os imigrantes recebidos.
+ *
+ * Uma thread lê continuamente as mensagens do coordenador e guarda os
+ * imigrantes em uma fila sem trava, então a evolução nunca espera pela rede.
+ * Todas as ilhas precisam gerar a mesma instância (mesma semente e mesmos
+ * dados); a população inicial de cada uma sai da semente misturada ao id.
+ */
+class IlhaRemota {
+    private final AlgoritmoGenetico algoritmo;
+    private final Socket socket;
+    private final DataInputStream entrada;
+    private final DataOutputStream saida;
+    private final int id;
+    private final int numIlhas;
+    private final Queue<Cromossomo> imigrantes = new ConcurrentLinkedQueue<>();
+
+    /** Conecta-se ao coordenador e espera a liberação de todas as ilhas. */
+    IlhaRemota(AlgoritmoGenetico algoritmo, InetSocketAddress coordenador) throws IOException {
+        this.algoritmo = algoritmo;
+        algoritmo.saida.printf("🌐 Conectando ao coordenador em %s ...%n", coordenador);
+        this.socket = new Socket(coordenador.getHostString(), coordenador.getPort());
+        this.socket.setTcpNoDelay(true);
+        this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.saida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        saida.writeByte(ProtocoloIlhas.OLA);
+        saida.writeLong(algoritmo.problema.instancia.impressaoDigital());
+        saida.flush();
+
+        byte resposta = entrada.readByte();
+        if (resposta == ProtocoloIlhas.RECUSADA) {
+            String motivo = entrada.readUTF();
+            socket.close();
+            throw new IOException("coordenador recusou a ilha: " + motivo);
+        }
+        if (resposta != ProtocoloIlhas.BOAS_VINDAS) {
+            socket.close();
+            throw new IOException("resposta inesperada do coordenador: " + resposta);
+        }
+        this.id = entrada.readInt();
+        this.numIlhas = entrada.readInt();
+        algoritmo.saida.printf("🌐 Ilha %d de %d%n", id, numIlhas);
+    }
+
+    /**
+     * Evolui a subpopulação até o critério de parada local ou o pedido de
+     * parada do coordenador e envia a este o melhor resultado da ilha.
+     */
+    void evoluir(CriterioParada criterio, MelhorSolucao melhor, int intervaloMigracao, int numMigrantes)
+            throws IOException {
+        Thread leitor = new Thread(() -> receber(criterio), "ilha-remota-" + id);
+        leitor.setDaemon(true);
+        leitor.start();
+
+        SplittableRandom rngIlha = new SplittableRandom(AlgoritmoGenetico.misturar(algoritmo.semente + id));
+        int tamanho = Math.max(2, algoritmo.populacao / numIlhas);
+        MotorGeracional motor = new MotorGeracional(algoritmo, algoritmo.gerarPopulacao(tamanho, rngIlha),
+                algoritmo.executor, rngIlha.split());
+        int intervalo = Math.max(1, intervaloMigracao);
+
+        try {
+            boolean parar = false;
+            for (int geracao = 0; !parar; geracao++) {
+                motor.evoluirPopulacao();
+                melhor.oferecer(motor.getMelhor());
+                if ((geracao + 1) % intervalo == 0) {
+                    if (!enviarMigrantes(motor.copiarMelhores(numMigrantes))
+                            || !enviar(ProtocoloIlhas.MELHOR, motor.getMelhor())) {
+                        criterio.interromper("conexão com o coordenador encerrada");
+                    }
+                    Cromossomo imigrante;
+                    while ((imigrante = imigrantes.poll()) != null) {
+                        motor.receberImigrante(imigrante);
+                    }
+                }
+                parar = criterio.deveParar(geracao, melhor.obter().getFitness());
+
+                if (geracao % 10 == 0 || parar) {
+                    algoritmo.saida.printf("Geração %3d - Melhor: %.2f | Pior: %.2f | Diversidade do Fitness: %.2f%n",
+                            geracao, motor.getMelhor().getFitness(), motor.getPior().getFitness(),
+                            motor.getMelhor().getFitness() - motor.getPior().getFitness());
+                }
+            }
+            enviar(ProtocoloIlhas.FIM, melhor.obter());
+        } finally {
+            socket.close();
+        }
+    }
+
+    /** Thread leitora: imigrantes para a fila, pedido de parada para o critério. */
+    private void receber(CriterioParada criterio) {
+        try {
+            while (true) {
+                byte tipo = entrada.readByte();
+                if (tipo == ProtocoloIlhas.MIGRANTES) {
+                    imigrantes.addAll(ProtocoloIlhas.lerMigrantes(entrada, algoritmo.problema, algoritmo.populacao));
+                } else if (tipo == ProtocoloIlhas.PARAR) {
+                    criterio.interromper("parada pedida pelo coordenador");
+                } else {
+                    throw new IOException("mensagem desconhecida: " + tipo);
+                }
+            }
+        } catch (IOException e) {
+            // Conexão encerrada: sem coordenador não há com quem migrar
+            criterio.interromper("conexão com o coordenador encerrada");
+        }
+    }
+
+    /** false se a conexão caiu. */
+    private synchronized boolean enviarMigrantes(List<Cromossomo> migrantes) {
+        try {
+            saida.writeByte(ProtocoloIlhas.MIGRANTES);
+            ProtocoloIlhas.escreverMigrantes(saida, migrantes);
+            saida.flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** false se a conexão caiu. */
+    private synchronized boolean enviar(byte tipo, Cromossomo cromossomo) {
+        try {
+            saida.writeByte(tipo);
+            ProtocoloIlhas.escreverCromossomo(saida, cromossomo);
+            saida.flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    int getId() {
+        return id;
+    }
+}
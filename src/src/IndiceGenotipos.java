@@ -0,0 +1,52 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto dos hashes Zobrist de uma população, em endereçamento aberto sobre
+ * um long[]: inserir e consultar custam O(1) sem alocar, e limpar é um
+ * Arrays.fill. Reconhece genótipos repetidos sem comparar genes.
+ *
+ * Não é thread-safe: o motor o preenche em uma passada sequencial, na ordem
+ * da população, o que também mantém a execução reproduzível.
+ */
+final class IndiceGenotipos {
+    private static final long LIVRE = 0L;
+
+    private final long[] tabela;
+    private final int mascara;
+    private int tamanho;
+
+    /** @param capacidade genótipos que o conjunto precisa comportar */
+    IndiceGenotipos(int capacidade) {
+        // Ocupação de no máximo 50%: sondagens curtas
+        int posicoes = Integer.highestOneBit(Math.max(2, capacidade) * 2 - 1) << 1;
+        this.tabela = new long[posicoes];
+        this.mascara = posicoes - 1;
+    }
+
+    void limpar() {
+        Arrays.fill(tabela, LIVRE);
+        tamanho = 0;
+    }
+
+    /** Adiciona o hash e devolve false se ele já estava no conjunto. */
+    boolean adicionar(long hash) {
+        long chave = hash == LIVRE ? 1L : hash; // O cromossomo sem aulas tem hash 0
+        int posicao = (int) AlgoritmoGenetico.misturar(chave) & mascara;
+        while (tabela[posicao] != LIVRE) {
+            if (tabela[posicao] == chave) {
+                return false;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        tabela[posicao] = chave;
+        tamanho++;
+        return true;
+    }
+
+    /** Genótipos distintos adicionados desde a última limpeza. */
+    int tamanho() {
+        return tamanho;
+    }
+}
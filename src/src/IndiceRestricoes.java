@@ -0,0 +1,183 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ * Índice de restrições pré-calculado a partir dos dados do problema. É
+ * construído uma única vez, logo após a inicialização dos dados, e permite
+ * avaliar o fitness sem hashing por aluno:
+ * - grafo de conflitos entre disciplinas (alunos em comum), em formato CSR;
+ * - bitset professor × disciplina com a elegibilidade para lecionar, e o
+ *   índice reverso disciplina -> professores habilitados;
+ * - tamanho da turma de cada disciplina, para checar a capacidade das salas,
+ *   e as salas ordenadas por capacidade.
+ */
+public class IndiceRestricoes {
+    private final int numDisciplinas;
+
+    // Vizinhos da disciplina d em vizinhos[inicioVizinhos[d] .. inicioVizinhos[d + 1]),
+    // ordenados, com o número de alunos em comum na mesma posição de alunosEmComum
+    private final int[] inicioVizinhos;
+    private final int[] vizinhos;
+    private final int[] alunosEmComum;
+
+    private final long[] elegibilidade;
+    private final int palavrasPorProfessor;
+    private final int[][] professoresPorDisciplina;
+
+    private final int[] tamanhoTurma;
+    private final int[] capacidadeSalas;
+    private final int[] salasPorCapacidade;
+
+    /**
+     * @param tamanhoTurma alunos de cada disciplina para a checagem de capacidade;
+     *                     pode diferir do número de matrículas quando a instância
+     *                     informa o tamanho da turma à parte (ITC-2007)
+     */
+    public IndiceRestricoes(int numDisciplinas, int numProfessores, int[][] disciplinasPorProfessor,
+            Matriculas matriculas, int[] tamanhoTurma, int[] capacidadeSalas) {
+        this.numDisciplinas = numDisciplinas;
+        this.tamanhoTurma = tamanhoTurma.clone();
+        this.capacidadeSalas = capacidadeSalas.clone();
+        this.salasPorCapacidade = ordenarSalasPorCapacidade(capacidadeSalas);
+
+        // Elegibilidade professor × disciplina
+        this.palavrasPorProfessor = (numDisciplinas + 63) >>> 6;
+        this.elegibilidade = new long[numProfessores * palavrasPorProfessor];
+        for (int p = 0; p < numProfessores; p++) {
+            for (int d : disciplinasPorProfessor[p]) {
+                elegibilidade[p * palavrasPorProfessor + (d >>> 6)] |= 1L << d;
+            }
+        }
+
+        // Índice reverso disciplina -> professores habilitados
+        int[] contagemProfessores = new int[numDisciplinas];
+        for (int p = 0; p < disciplinasPorProfessor.length; p++) {
+            for (int d : disciplinasPorProfessor[p]) {
+                contagemProfessores[d]++;
+            }
+        }
+        this.professoresPorDisciplina = new int[numDisciplinas][];
+        for (int d = 0; d < numDisciplinas; d++) {
+            professoresPorDisciplina[d] = new int[contagemProfessores[d]];
+            contagemProfessores[d] = 0;
+        }
+        for (int p = 0; p < disciplinasPorProfessor.length; p++) {
+            for (int d : disciplinasPorProfessor[p]) {
+                professoresPorDisciplina[d][contagemProfessores[d]++] = p;
+            }
+        }
+
+        // Índice reverso aluno -> disciplinas (CSR), transposto das matrículas
+        int numAlunos = matriculas.getNumAlunos();
+        int[] inicioAluno = new int[numAlunos + 1];
+        for (int i = 0; i < matriculas.getNumMatriculas(); i++) {
+            inicioAluno[matriculas.aluno(i) + 1]++;
+        }
+        for (int a = 0; a < numAlunos; a++) {
+            inicioAluno[a + 1] += inicioAluno[a];
+        }
+        int[] disciplinasDoAluno = new int[inicioAluno[numAlunos]];
+        int[] posicao = Arrays.copyOf(inicioAluno, numAlunos);
+        for (int d = 0; d < numDisciplinas; d++) {
+            for (int i = matriculas.inicio(d); i < matriculas.fim(d); i++) {
+                disciplinasDoAluno[posicao[matriculas.aluno(i)]++] = d;
+            }
+        }
+
+        // Grafo de conflitos: alunos em comum entre cada par de disciplinas
+        int[] contagem = new int[numDisciplinas];
+        int[] tocadas = new int[numDisciplinas];
+        int[][] vizinhosPorDisciplina = new int[numDisciplinas][];
+        int[][] pesosPorDisciplina = new int[numDisciplinas][];
+        int totalArestas = 0;
+
+        for (int d = 0; d < numDisciplinas; d++) {
+            int numTocadas = 0;
+            for (int m = matriculas.inicio(d); m < matriculas.fim(d); m++) {
+                int aluno = matriculas.aluno(m);
+                for (int i = inicioAluno[aluno]; i < inicioAluno[aluno + 1]; i++) {
+                    int outra = disciplinasDoAluno[i];
+                    if (outra != d && contagem[outra]++ == 0) {
+                        tocadas[numTocadas++] = outra;
+                    }
+                }
+            }
+            Arrays.sort(tocadas, 0, numTocadas);
+            vizinhosPorDisciplina[d] = Arrays.copyOf(tocadas, numTocadas);
+            pesosPorDisciplina[d] = new int[numTocadas];
+            for (int i = 0; i < numTocadas; i++) {
+                pesosPorDisciplina[d][i] = contagem[tocadas[i]];
+                contagem[tocadas[i]] = 0;
+            }
+            totalArestas += numTocadas;
+        }
+
+        this.inicioVizinhos = new int[numDisciplinas + 1];
+        this.vizinhos = new int[totalArestas];
+        this.alunosEmComum = new int[totalArestas];
+        for (int d = 0; d < numDisciplinas; d++) {
+            int inicio = inicioVizinhos[d];
+            int grau = vizinhosPorDisciplina[d].length;
+            System.arraycopy(vizinhosPorDisciplina[d], 0, vizinhos, inicio, grau);
+            System.arraycopy(pesosPorDisciplina[d], 0, alunosEmComum, inicio, grau);
+            inicioVizinhos[d + 1] = inicio + grau;
+        }
+    }
+
+    private static int[] ordenarSalasPorCapacidade(int[] capacidadeSalas) {
+        // Chave = capacidade nos 32 bits altos e sala nos baixos: ordena sem boxing
+        long[] chaves = new long[capacidadeSalas.length];
+        for (int s = 0; s < capacidadeSalas.length; s++) {
+            chaves[s] = ((long) capacidadeSalas[s] << 32) | s;
+        }
+        Arrays.sort(chaves);
+        int[] salas = new int[chaves.length];
+        for (int i = 0; i < chaves.length; i++) {
+            salas[i] = (int) chaves[i];
+        }
+        return salas;
+    }
+
+    public boolean podeLecionar(int professor, int disciplina) {
+        return (elegibilidade[professor * palavrasPorProfessor + (disciplina >>> 6)] & (1L << disciplina)) != 0;
+    }
+
+    /** Número de alunos matriculados nas duas disciplinas ao mesmo tempo. */
+    public int alunosEmComum(int disciplina, int outra) {
+        int posicao = Arrays.binarySearch(vizinhos, inicioVizinhos[disciplina],
+                inicioVizinhos[disciplina + 1], outra);
+        return posicao >= 0 ? alunosEmComum[posicao] : 0;
+    }
+
+    /** Número de disciplinas que compartilham ao menos um aluno com a disciplina. */
+    public int grauConflito(int disciplina) {
+        return inicioVizinhos[disciplina + 1] - inicioVizinhos[disciplina];
+    }
+
+    /** Professores habilitados a lecionar a disciplina (não alterar o array). */
+    public int[] professoresDe(int disciplina) {
+        return professoresPorDisciplina[disciplina];
+    }
+
+    /** Salas em ordem crescente de capacidade (não alterar o array). */
+    public int[] salasPorCapacidade() {
+        return salasPorCapacidade;
+    }
+
+    public int tamanhoTurma(int disciplina) {
+        return tamanhoTurma[disciplina];
+    }
+
+    public int capacidadeSala(int sala) {
+        return capacidadeSalas[sala];
+    }
+
+    public boolean cabeNaSala(int disciplina, int sala) {
+        return tamanhoTurma[disciplina] <= capacidadeSalas[sala];
+    }
+
+    public int getNumDisciplinas() {
+        return numDisciplinas;
+    }
+}
@@ -0,0 +1,172 @@
+package src;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Dados de uma instância do problema: disciplinas, professores habilitados e
+ * disponíveis, salas, grade de horários e matrículas. Vem do gerador
+ * sintético ou de um arquivo ({@link LeitorInstancia}) e não muda depois de
+ * construída.
+ */
+final class Instancia {
+    final String nome;
+    final String[] nomesDisciplinas;
+    final String[] nomesProfessores;
+    final int numDias;
+    final int numHorarios;
+    final boolean[][] disponibilidadeProfessor;
+    final int[][] disciplinasPorProfessor;
+    final int[] capacidadeSalas;
+    final int[] tamanhoTurma;
+    final Matriculas matriculas;
+
+    Instancia(String nome, String[] nomesDisciplinas, String[] nomesProfessores, int numDias, int numHorarios,
+            boolean[][] disponibilidadeProfessor, int[][] disciplinasPorProfessor, int[] capacidadeSalas,
+            int[] tamanhoTurma, Matriculas matriculas) {
+        this.nome = nome;
+        this.nomesDisciplinas = nomesDisciplinas;
+        this.nomesProfessores = nomesProfessores;
+        this.numDias = numDias;
+        this.numHorarios = numHorarios;
+        this.disponibilidadeProfessor = disponibilidadeProfessor;
+        this.disciplinasPorProfessor = disciplinasPorProfessor;
+        this.capacidadeSalas = capacidadeSalas;
+        this.tamanhoTurma = tamanhoTurma;
+        this.matriculas = matriculas;
+    }
+
+    int getNumDisciplinas() {
+        return nomesDisciplinas.length;
+    }
+
+    int getNumProfessores() {
+        return nomesProfessores.length;
+    }
+
+    int getNumSalas() {
+        return capacidadeSalas.length;
+    }
+
+    int getNumAlunos() {
+        return matriculas.getNumAlunos();
+    }
+
+    /** Tamanho de cada turma igual ao número de matrículas da disciplina. */
+    static int[] tamanhosPelasMatriculas(Matriculas matriculas) {
+        int[] tamanhos = new int[matriculas.getNumDisciplinas()];
+        for (int d = 0; d < tamanhos.length; d++) {
+            tamanhos[d] = matriculas.numAlunosDa(d);
+        }
+        return tamanhos;
+    }
+
+    /**
+     * Impressão digital dos dados do problema, gravada no checkpoint para que
+     * ele só seja retomado sobre a mesma instância. Independe da ordem de
+     * iteração dos conjuntos.
+     */
+    long impressaoDigital() {
+        long impressao = AlgoritmoGenetico.misturar(getNumDisciplinas());
+        impressao = AlgoritmoGenetico.misturar(impressao ^ getNumProfessores());
+        impressao = AlgoritmoGenetico.misturar(impressao ^ getNumSalas());
+        impressao = AlgoritmoGenetico.misturar(impressao ^ numHorarios);
+        impressao = AlgoritmoGenetico.misturar(impressao ^ getNumAlunos());
+        for (int capacidade : capacidadeSalas) {
+            impressao = AlgoritmoGenetico.misturar(impressao ^ capacidade);
+        }
+        for (int p = 0; p < getNumProfessores(); p++) {
+            long soma = 0;
+            for (int d : disciplinasPorProfessor[p]) {
+                soma += AlgoritmoGenetico.misturar(d);
+            }
+            for (int h = 0; h < numHorarios; h++) {
+                if (disponibilidadeProfessor[p][h]) {
+                    soma += AlgoritmoGenetico.misturar(-1L - h);
+                }
+            }
+            impressao = AlgoritmoGenetico.misturar(impressao ^ soma);
+        }
+        for (int d = 0; d < getNumDisciplinas(); d++) {
+            long soma = tamanhoTurma[d];
+            for (int i = matriculas.inicio(d); i < matriculas.fim(d); i++) {
+                soma += AlgoritmoGenetico.misturar(matriculas.aluno(i));
+            }
+            impressao = AlgoritmoGenetico.misturar(impressao ^ soma);
+        }
+        return impressao;
+    }
+
+    // ----- GERADOR SINTÉTICO -----
+
+    static Instancia gerarSintetica(int numDisciplinas, int numProfessores, int numSalas, int numHorarios,
+            int numAlunos, SplittableRandom random) {
+        // Gerar nomes de disciplinas automaticamente
+        String[] nomesDisciplinas = new String[numDisciplinas];
+        String[] areas = { "Computação", "Matemática", "Física", "Química", "Biologia",
+                "Engenharia", "Administração", "Economia", "Psicologia", "História" };
+        for (int i = 0; i < numDisciplinas; i++) {
+            nomesDisciplinas[i] = areas[i % areas.length] + " " + (i / areas.length + 1);
+        }
+
+        // Gerar nomes de professores automaticamente
+        String[] nomesProfessores = new String[numProfessores];
+        String[] sobrenomes = { "Silva", "Santos", "Oliveira", "Costa", "Souza", "Lima", "Pereira",
+                "Ferreira", "Rodrigues", "Almeida", "Nascimento", "Carvalho" };
+        for (int i = 0; i < numProfessores; i++) {
+            nomesProfessores[i] = "Prof. " + sobrenomes[i % sobrenomes.length] +
+                    (i / sobrenomes.length > 0 ? " " + (i / sobrenomes.length + 1) : "");
+        }
+
+        // Capacidades das salas
+        int[] capacidadeSalas = new int[numSalas];
+        for (int i = 0; i < numSalas; i++) {
+            capacidadeSalas[i] = 30 + random.nextInt(71); // 30-100 alunos por sala
+        }
+
+        // Disponibilidade dos professores
+        boolean[][] disponibilidadeProfessor = new boolean[numProfessores][numHorarios];
+        for (int p = 0; p < numProfessores; p++) {
+            for (int h = 0; h < numHorarios; h++) {
+                disponibilidadeProfessor[p][h] = random.nextDouble() > 0.3; // 70% disponível
+            }
+        }
+
+        // Distribuição de disciplinas por professor
+        int[][] disciplinasPorProfessor = new int[numProfessores][];
+        int disciplinasPorProf = Math.max(3, numDisciplinas / numProfessores + 2);
+        for (int p = 0; p < numProfessores; p++) {
+            Set<Integer> disciplinas = new HashSet<>();
+            while (disciplinas.size() < disciplinasPorProf && disciplinas.size() < numDisciplinas) {
+                disciplinas.add(random.nextInt(numDisciplinas));
+            }
+            disciplinasPorProfessor[p] = disciplinas.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Distribuição de alunos por disciplina (sorteio sem repetição marcado em um bitset)
+        Matriculas.Construtor construtor = new Matriculas.Construtor();
+        long[] sorteados = new long[(numAlunos + 63) >>> 6];
+        int[] alunos = new int[Math.min(50, numAlunos)];
+        for (int d = 0; d < numDisciplinas; d++) {
+            int tamanho = Math.min(20 + random.nextInt(31), numAlunos); // 20-50 alunos por disciplina
+            int total = 0;
+            while (total < tamanho) {
+                int aluno = random.nextInt(numAlunos);
+                if ((sorteados[aluno >>> 6] & (1L << aluno)) == 0) {
+                    sorteados[aluno >>> 6] |= 1L << aluno;
+                    alunos[total++] = aluno;
+                }
+            }
+            for (int i = 0; i < total; i++) {
+                construtor.adicionar(d, alunos[i]);
+                sorteados[alunos[i] >>> 6] &= ~(1L << alunos[i]);
+            }
+        }
+        Matriculas matriculas = construtor.construir(numDisciplinas, numAlunos);
+
+        return new Instancia("sintética", nomesDisciplinas, nomesProfessores, 5, numHorarios,
+                disponibilidadeProfessor, disciplinasPorProfessor, capacidadeSalas,
+                tamanhosPelasMatriculas(matriculas), matriculas);
+    }
+}
@@ -0,0 +1,319 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura de instâncias reais em uma única passada pelo arquivo, linha a
+ * linha, montando as matrículas direto no formato CSR ({@link Matriculas}).
+ *
+ * Formatos, escolhidos pela extensão:
+ * - {@code .ctt}: ITC-2007, trilha 3 (curriculum-based course timetabling);
+ * - {@code .csv}: um registro por linha, com o tipo na primeira coluna:
+ *
+ * <pre>
+ * grade,DIAS,HORARIOS_POR_DIA
+ * sala,NOME,CAPACIDADE
+ * professor,NOME,DISCIPLINA          (professor habilitado para a disciplina)
+ * indisponivel,PROFESSOR,HORARIO     (horário de 0 a DIAS * HORARIOS_POR_DIA - 1)
+ * matricula,ALUNO,DISCIPLINA
+ * </pre>
+ *
+ * No CSV, professores, disciplinas e alunos são criados na primeira vez em
+ * que aparecem, em qualquer ordem; linhas vazias e iniciadas por # são
+ * ignoradas.
+ */
+final class LeitorInstancia {
+
+    private LeitorInstancia() {
+    }
+
+    static Instancia ler(Path arquivo) throws IOException {
+        String nome = arquivo.getFileName().toString();
+        if (nome.toLowerCase().endsWith(".ctt")) {
+            return lerItc2007(arquivo);
+        }
+        if (nome.toLowerCase().endsWith(".csv")) {
+            return lerCsv(arquivo);
+        }
+        throw new IOException("formato de instância desconhecido (use .ctt ou .csv): " + nome);
+    }
+
+    // ----- ITC-2007 -----
+
+    /**
+     * Traduz o modelo do ITC-2007 para o deste problema:
+     * - cada aula de uma disciplina do ITC vira uma disciplina aqui
+     *   ("Curso (2/3)"), habilitada apenas para o professor do curso e com o
+     *   número de alunos informado pelo curso;
+     * - cada currículo vira um "aluno" matriculado em todas as aulas dos seus
+     *   cursos, então aulas do mesmo currículo no mesmo horário e sala contam
+     *   como conflito de alunos;
+     * - as restrições de indisponibilidade são por curso no ITC e por
+     *   professor aqui: o professor fica indisponível em qualquer horário
+     *   proibido para algum dos seus cursos (mais restritivo, nunca menos).
+     * O fitness continua sendo o deste projeto, não a pontuação do ITC.
+     */
+    static Instancia lerItc2007(Path arquivo) throws IOException {
+        String nome = arquivo.getFileName().toString();
+        int dias = 0;
+        int periodosPorDia = 0;
+
+        List<String> nomesDisciplinas = new ArrayList<>();
+        int[] tamanhoTurma = new int[64];
+        Map<String, int[]> aulasDoCurso = new HashMap<>(); // curso -> {primeira disciplina, número de aulas}
+        Map<String, Integer> professorDoCurso = new HashMap<>();
+        Map<String, Integer> indiceProfessor = new HashMap<>();
+        List<String> nomesProfessores = new ArrayList<>();
+        List<List<Integer>> disciplinasDoProfessor = new ArrayList<>();
+        int[] capacidadeSalas = new int[16];
+        int numSalas = 0;
+        Matriculas.Construtor matriculas = new Matriculas.Construtor();
+        int numCurriculos = 0;
+        List<int[]> indisponiveis = new ArrayList<>(); // {professor, horário}
+
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String secao = "";
+            String linha;
+            int numeroLinha = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numeroLinha++;
+                linha = linha.trim();
+                if (linha.isEmpty()) {
+                    continue;
+                }
+                if (linha.endsWith(":") || linha.equals("END.")) {
+                    secao = linha;
+                    continue;
+                }
+                String[] campos = linha.split("\\s+");
+                try {
+                    switch (secao) {
+                        case "":
+                            // Cabeçalho "Chave: valor"
+                            if (campos[0].equals("Name:")) {
+                                nome = campos[1];
+                            } else if (campos[0].equals("Days:")) {
+                                dias = Integer.parseInt(campos[1]);
+                            } else if (campos[0].equals("Periods_per_day:")) {
+                                periodosPorDia = Integer.parseInt(campos[1]);
+                            }
+                            break;
+                        case "COURSES:": {
+                            // Curso Professor Aulas DiasMinimos Alunos
+                            String curso = campos[0];
+                            int aulas = Integer.parseInt(campos[2]);
+                            int alunos = Integer.parseInt(campos[4]);
+                            Integer professor = indiceProfessor.get(campos[1]);
+                            if (professor == null) {
+                                professor = nomesProfessores.size();
+                                indiceProfessor.put(campos[1], professor);
+                                nomesProfessores.add(campos[1]);
+                                disciplinasDoProfessor.add(new ArrayList<>());
+                            }
+                            professorDoCurso.put(curso, professor);
+                            aulasDoCurso.put(curso, new int[] { nomesDisciplinas.size(), aulas });
+                            for (int k = 0; k < aulas; k++) {
+                                int disciplina = nomesDisciplinas.size();
+                                nomesDisciplinas.add(aulas > 1 ? curso + " (" + (k + 1) + "/" + aulas + ")" : curso);
+                                if (disciplina == tamanhoTurma.length) {
+                                    tamanhoTurma = Arrays.copyOf(tamanhoTurma, disciplina * 2);
+                                }
+                                tamanhoTurma[disciplina] = alunos;
+                                disciplinasDoProfessor.get(professor).add(disciplina);
+                            }
+                            break;
+                        }
+                        case "ROOMS:":
+                            // Sala Capacidade
+                            if (numSalas == capacidadeSalas.length) {
+                                capacidadeSalas = Arrays.copyOf(capacidadeSalas, numSalas * 2);
+                            }
+                            capacidadeSalas[numSalas++] = Integer.parseInt(campos[1]);
+                            break;
+                        case "CURRICULA:": {
+                            // Currículo NumCursos Curso1 Curso2 ...
+                            int curriculo = numCurriculos++;
+                            for (int i = 2; i < campos.length; i++) {
+                                int[] aulas = cursoExistente(aulasDoCurso, campos[i]);
+                                for (int d = aulas[0]; d < aulas[0] + aulas[1]; d++) {
+                                    matriculas.adicionar(d, curriculo);
+                                }
+                            }
+                            break;
+                        }
+                        case "UNAVAILABILITY_CONSTRAINTS:": {
+                            // Curso Dia Período
+                            cursoExistente(aulasDoCurso, campos[0]);
+                            int horario = Integer.parseInt(campos[1]) * periodosPorDia + Integer.parseInt(campos[2]);
+                            indisponiveis.add(new int[] { professorDoCurso.get(campos[0]), horario });
+                            break;
+                        }
+                        default:
+                            // Seções que este modelo não usa (ex.: ROOM_CONSTRAINTS)
+                            break;
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException(arquivo + ", linha " + numeroLinha + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        if (dias <= 0 || periodosPorDia <= 0) {
+            throw new IOException(arquivo + ": cabeçalho sem Days/Periods_per_day");
+        }
+        int numHorarios = dias * periodosPorDia;
+        int numDisciplinas = nomesDisciplinas.size();
+        return montar(nome, nomesDisciplinas, nomesProfessores, disciplinasDoProfessor, indisponiveis,
+                dias, numHorarios, Arrays.copyOf(capacidadeSalas, numSalas),
+                Arrays.copyOf(tamanhoTurma, numDisciplinas), matriculas.construir(numDisciplinas, numCurriculos));
+    }
+
+    private static int[] cursoExistente(Map<String, int[]> aulasDoCurso, String curso) {
+        int[] aulas = aulasDoCurso.get(curso);
+        if (aulas == null) {
+            throw new IllegalArgumentException("curso não declarado em COURSES: " + curso);
+        }
+        return aulas;
+    }
+
+    // ----- CSV -----
+
+    static Instancia lerCsv(Path arquivo) throws IOException {
+        int dias = 0;
+        int horariosPorDia = 0;
+
+        Map<String, Integer> indiceDisciplina = new HashMap<>();
+        List<String> nomesDisciplinas = new ArrayList<>();
+        Map<String, Integer> indiceProfessor = new HashMap<>();
+        List<String> nomesProfessores = new ArrayList<>();
+        List<List<Integer>> disciplinasDoProfessor = new ArrayList<>();
+        Map<String, Integer> indiceAluno = new HashMap<>();
+        int[] capacidadeSalas = new int[16];
+        int numSalas = 0;
+        Matriculas.Construtor matriculas = new Matriculas.Construtor();
+        List<int[]> indisponiveis = new ArrayList<>(); // {professor, horário}
+
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numeroLinha = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numeroLinha++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linha.split(",", -1);
+                try {
+                    if (campos.length != 3) {
+                        throw new IllegalArgumentException("esperadas 3 colunas, encontradas " + campos.length);
+                    }
+                    String primeiro = campos[1].trim();
+                    String segundo = campos[2].trim();
+                    switch (campos[0].trim()) {
+                        case "grade":
+                            dias = Integer.parseInt(primeiro);
+                            horariosPorDia = Integer.parseInt(segundo);
+                            break;
+                        case "sala":
+                            if (numSalas == capacidadeSalas.length) {
+                                capacidadeSalas = Arrays.copyOf(capacidadeSalas, numSalas * 2);
+                            }
+                            capacidadeSalas[numSalas++] = Integer.parseInt(segundo);
+                            break;
+                        case "professor": {
+                            int professor = professor(primeiro, indiceProfessor, nomesProfessores, disciplinasDoProfessor);
+                            disciplinasDoProfessor.get(professor).add(indice(segundo, indiceDisciplina, nomesDisciplinas));
+                            break;
+                        }
+                        case "indisponivel": {
+                            int professor = professor(primeiro, indiceProfessor, nomesProfessores, disciplinasDoProfessor);
+                            indisponiveis.add(new int[] { professor, Integer.parseInt(segundo) });
+                            break;
+                        }
+                        case "matricula": {
+                            Integer aluno = indiceAluno.get(primeiro);
+                            if (aluno == null) {
+                                aluno = indiceAluno.size();
+                                indiceAluno.put(primeiro, aluno);
+                            }
+                            matriculas.adicionar(indice(segundo, indiceDisciplina, nomesDisciplinas), aluno);
+                            break;
+                        }
+                        default:
+                            throw new IllegalArgumentException("tipo de registro desconhecido: " + campos[0]);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException(arquivo + ", linha " + numeroLinha + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        if (dias <= 0 || horariosPorDia <= 0) {
+            throw new IOException(arquivo + ": falta o registro grade,DIAS,HORARIOS_POR_DIA");
+        }
+        int numDisciplinas = nomesDisciplinas.size();
+        Matriculas construidas = matriculas.construir(numDisciplinas, indiceAluno.size());
+        return montar(arquivo.getFileName().toString(), nomesDisciplinas, nomesProfessores, disciplinasDoProfessor,
+                indisponiveis, dias, dias * horariosPorDia, Arrays.copyOf(capacidadeSalas, numSalas),
+                Instancia.tamanhosPelasMatriculas(construidas), construidas);
+    }
+
+    private static int indice(String nome, Map<String, Integer> indices, List<String> nomes) {
+        Integer indice = indices.get(nome);
+        if (indice == null) {
+            indice = nomes.size();
+            indices.put(nome, indice);
+            nomes.add(nome);
+        }
+        return indice;
+    }
+
+    private static int professor(String nome, Map<String, Integer> indices, List<String> nomes,
+            List<List<Integer>> disciplinasDoProfessor) {
+        int professor = indice(nome, indices, nomes);
+        if (professor == disciplinasDoProfessor.size()) {
+            disciplinasDoProfessor.add(new ArrayList<>());
+        }
+        return professor;
+    }
+
+    // ----- MONTAGEM -----
+
+    private static Instancia montar(String nome, List<String> nomesDisciplinas, List<String> nomesProfessores,
+            List<List<Integer>> disciplinasDoProfessor, List<int[]> indisponiveis, int numDias, int numHorarios,
+            int[] capacidadeSalas, int[] tamanhoTurma, Matriculas matriculas) throws IOException {
+        if (nomesDisciplinas.isEmpty() || nomesProfessores.isEmpty() || capacidadeSalas.length == 0) {
+            throw new IOException(nome + ": a instância precisa de disciplinas, professores e salas");
+        }
+        int numProfessores = nomesProfessores.size();
+        int[][] disciplinasPorProfessor = new int[numProfessores][];
+        for (int p = 0; p < numProfessores; p++) {
+            disciplinasPorProfessor[p] = disciplinasDoProfessor.get(p).stream()
+                    .mapToInt(Integer::intValue).distinct().toArray();
+        }
+
+        boolean[][] disponibilidadeProfessor = new boolean[numProfessores][numHorarios];
+        for (boolean[] disponivel : disponibilidadeProfessor) {
+            Arrays.fill(disponivel, true);
+        }
+        for (int[] indisponivel : indisponiveis) {
+            if (indisponivel[1] < 0 || indisponivel[1] >= numHorarios) {
+                throw new IOException(nome + ": horário fora da grade: " + indisponivel[1]);
+            }
+            disponibilidadeProfessor[indisponivel[0]][indisponivel[1]] = false;
+        }
+
+        return new Instancia(nome, nomesDisciplinas.toArray(new String[0]), nomesProfessores.toArray(new String[0]),
+                numDias, numHorarios, disponibilidadeProfessor, disciplinasPorProfessor, capacidadeSalas,
+                tamanhoTurma, matriculas);
+    }
+}
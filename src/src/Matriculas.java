@@ -0,0 +1,102 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ * Matrículas aluno × disciplina em formato CSR: os alunos da disciplina d
+ * estão em {@code alunos[inicio[d] .. inicio[d + 1])}, ordenados e sem
+ * repetição. Ocupa 4 bytes por matrícula, sem objetos por aluno.
+ */
+public final class Matriculas {
+    private final int numAlunos;
+    private final int[] inicio;
+    private final int[] alunos;
+
+    private Matriculas(int numAlunos, int[] inicio, int[] alunos) {
+        this.numAlunos = numAlunos;
+        this.inicio = inicio;
+        this.alunos = alunos;
+    }
+
+    public int getNumDisciplinas() {
+        return inicio.length - 1;
+    }
+
+    public int getNumAlunos() {
+        return numAlunos;
+    }
+
+    public int getNumMatriculas() {
+        return alunos.length;
+    }
+
+    /** Posição do primeiro aluno da disciplina em {@link #aluno(int)}. */
+    public int inicio(int disciplina) {
+        return inicio[disciplina];
+    }
+
+    /** Posição seguinte ao último aluno da disciplina. */
+    public int fim(int disciplina) {
+        return inicio[disciplina + 1];
+    }
+
+    public int aluno(int posicao) {
+        return alunos[posicao];
+    }
+
+    public int numAlunosDa(int disciplina) {
+        return inicio[disciplina + 1] - inicio[disciplina];
+    }
+
+    /**
+     * Acumula pares (disciplina, aluno) em qualquer ordem, em arrays que
+     * crescem por duplicação, e monta o CSR com uma ordenação por contagem.
+     */
+    public static final class Construtor {
+        private int[] disciplinas = new int[1024];
+        private int[] alunos = new int[1024];
+        private int numPares;
+
+        public void adicionar(int disciplina, int aluno) {
+            if (numPares == disciplinas.length) {
+                disciplinas = Arrays.copyOf(disciplinas, numPares * 2);
+                alunos = Arrays.copyOf(alunos, numPares * 2);
+            }
+            disciplinas[numPares] = disciplina;
+            alunos[numPares] = aluno;
+            numPares++;
+        }
+
+        public Matriculas construir(int numDisciplinas, int numAlunos) {
+            int[] inicio = new int[numDisciplinas + 1];
+            for (int i = 0; i < numPares; i++) {
+                inicio[disciplinas[i] + 1]++;
+            }
+            for (int d = 0; d < numDisciplinas; d++) {
+                inicio[d + 1] += inicio[d];
+            }
+            int[] porDisciplina = new int[numPares];
+            int[] posicao = Arrays.copyOf(inicio, numDisciplinas);
+            for (int i = 0; i < numPares; i++) {
+                porDisciplina[posicao[disciplinas[i]]++] = alunos[i];
+            }
+
+            // Ordena cada linha e descarta matrículas repetidas, compactando no lugar
+            int destino = 0;
+            int inicioLinha = 0;
+            for (int d = 0; d < numDisciplinas; d++) {
+                int fimLinha = inicio[d + 1];
+                Arrays.sort(porDisciplina, inicioLinha, fimLinha);
+                inicio[d] = destino;
+                for (int i = inicioLinha; i < fimLinha; i++) {
+                    if (i == inicioLinha || porDisciplina[i] != porDisciplina[i - 1]) {
+                        porDisciplina[destino++] = porDisciplina[i];
+                    }
+                }
+                inicioLinha = fimLinha;
+            }
+            inicio[numDisciplinas] = destino;
+            return new Matriculas(numAlunos, inicio, Arrays.copyOf(porDisciplina, destino));
+        }
+    }
+}
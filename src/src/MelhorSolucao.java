@@ -0,0 +1,38 @@
+package src;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Melhor solução encontrada até o momento (modo anytime). A busca publica
+ * uma cópia própria sempre que melhora, então outra thread pode ler o
+ * cronograma atual a qualquer instante sem interferir na evolução: o
+ * cromossomo devolvido por {@link #obter()} nunca é alterado depois de
+ * publicado.
+ */
+class MelhorSolucao {
+    private final AtomicReference<Cromossomo> melhor = new AtomicReference<>();
+
+    /** Publica uma cópia do candidato se ele superar a melhor solução atual. */
+    boolean oferecer(Cromossomo candidato) {
+        double fitness = candidato.getFitness();
+        Cromossomo atual = melhor.get();
+        if (atual != null && atual.getFitness() >= fitness) {
+            return false;
+        }
+        Cromossomo copia = new Cromossomo(candidato);
+        while (atual == null || atual.getFitness() < fitness) {
+            if (melhor.compareAndSet(atual, copia)) {
+                return true;
+            }
+            atual = melhor.get();
+        }
+        return false;
+    }
+
+    /** Melhor solução publicada até agora, ou null antes da primeira geração. */
+    Cromossomo obter() {
+        return melhor.get();
+    }
+}
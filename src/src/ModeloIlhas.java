@@ -0,0 +1,163 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Modelo de ilhas: várias subpopulações evoluem de forma independente e a
+ * cada intervalo de gerações enviam cópias dos seus melhores indivíduos para
+ * as ilhas vizinhas. A troca usa filas sem trava (uma caixa de entrada por
+ * ilha), então nenhuma ilha espera pelas outras: não há barreira global
+ * entre gerações.
+ *
+ * As ilhas se revezam em no máximo {@code paralelismo} tarefas do pool: cada
+ * tarefa tira a próxima ilha de uma fila circular, roda uma geração dela e a
+ * devolve ao fim da fila. Com mais ilhas do que núcleos todas avançam no
+ * mesmo ritmo, e a execução nunca ocupa mais núcleos do que lhe cabem.
+ *
+ * As ilhas compartilham apenas os dados do problema, que são somente leitura.
+ * Como a chegada dos migrantes depende do ritmo de cada thread, o modo de
+ * ilhas não é reproduzível bit a bit mesmo com semente fixa.
+ */
+class ModeloIlhas {
+
+    enum Topologia {
+        ANEL, // Ilha i envia para a ilha i + 1
+        COMPLETA; // Ilha i envia para todas as outras
+
+        static Topologia de(String nome) {
+            for (Topologia topologia : values()) {
+                if (topologia.name().equalsIgnoreCase(nome.trim())) {
+                    return topologia;
+                }
+            }
+            throw new IllegalArgumentException("topologia_migracao desconhecida: " + nome
+                    + " (use 'anel' ou 'completa')");
+        }
+    }
+
+    private final AlgoritmoGenetico algoritmo;
+    private final MotorGeracional[] ilhas;
+    private final List<Queue<Cromossomo>> caixasDeEntrada;
+    private final int intervaloMigracao;
+    private final int numMigrantes;
+    private final Topologia topologia;
+    private final ForkJoinPool pool;
+
+    ModeloIlhas(AlgoritmoGenetico algoritmo, int numIlhas, int tamanhoIlha, int intervaloMigracao,
+            int numMigrantes, Topologia topologia, SplittableRandom rng) {
+        this.algoritmo = algoritmo;
+        this.intervaloMigracao = Math.max(1, intervaloMigracao);
+        this.numMigrantes = numMigrantes;
+        this.topologia = topologia;
+        this.pool = algoritmo.executor;
+        this.ilhas = new MotorGeracional[numIlhas];
+        this.caixasDeEntrada = new ArrayList<>(numIlhas);
+        for (int i = 0; i < numIlhas; i++) {
+            // Cada ilha roda sequencialmente na sua tarefa (pool nulo no motor)
+            ilhas[i] = new MotorGeracional(algoritmo, algoritmo.gerarPopulacao(tamanhoIlha), null, rng.split());
+            caixasDeEntrada.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Evolui todas as ilhas em paralelo até o critério de parada, que é
+     * compartilhado: a primeira ilha que o satisfaz encerra todas. A melhor
+     * solução global é publicada em {@code melhor} a cada geração.
+     */
+    void evoluir(CriterioParada criterio, MelhorSolucao melhor) {
+        Queue<Integer> prontas = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < ilhas.length; i++) {
+            prontas.add(i);
+        }
+        int[] geracaoDaIlha = new int[ilhas.length];
+        int numTarefas = Math.min(ilhas.length, algoritmo.paralelismo);
+        List<ForkJoinTask<?>> tarefas = new ArrayList<>(numTarefas);
+        for (int i = 0; i < numTarefas; i++) {
+            tarefas.add(pool.submit(() -> revezar(prontas, geracaoDaIlha, criterio, melhor)));
+        }
+        for (ForkJoinTask<?> tarefa : tarefas) {
+            tarefa.join();
+        }
+        for (int ilha = 0; ilha < ilhas.length; ilha++) {
+            algoritmo.saida.printf("🏝️ Ilha %d - Melhor: %.2f | Pior: %.2f%n",
+                    ilha, ilhas[ilha].getMelhor().getFitness(), ilhas[ilha].getPior().getFitness());
+        }
+    }
+
+    /**
+     * Corpo de uma tarefa: roda uma geração da próxima ilha da fila e a
+     * devolve ao fim dela, até não sobrar ilha por evoluir. A fila também
+     * publica o estado da ilha para a tarefa que a pegar em seguida.
+     */
+    private void revezar(Queue<Integer> prontas, int[] geracaoDaIlha, CriterioParada criterio, MelhorSolucao melhor) {
+        Integer ilha;
+        while ((ilha = prontas.poll()) != null) {
+            if (!evoluirGeracao(ilha, geracaoDaIlha[ilha]++, criterio, melhor)) {
+                prontas.add(ilha);
+            }
+        }
+    }
+
+    /** Uma geração da ilha, com a migração do intervalo; true se o critério mandou parar. */
+    private boolean evoluirGeracao(int ilha, int geracao, CriterioParada criterio, MelhorSolucao melhor) {
+        MotorGeracional motor = ilhas[ilha];
+        motor.evoluirPopulacao();
+        if ((geracao + 1) % intervaloMigracao == 0) {
+            emigrar(ilha);
+            imigrar(ilha);
+        }
+        melhor.oferecer(motor.getMelhor());
+        return criterio.deveParar(geracao, melhor.obter().getFitness());
+    }
+
+    private void emigrar(int ilha) {
+        if (ilhas.length < 2) {
+            return;
+        }
+        if (topologia == Topologia.ANEL) {
+            caixasDeEntrada.get((ilha + 1) % ilhas.length).addAll(ilhas[ilha].copiarMelhores(numMigrantes));
+            return;
+        }
+        for (int destino = 0; destino < ilhas.length; destino++) {
+            if (destino != ilha) {
+                caixasDeEntrada.get(destino).addAll(ilhas[ilha].copiarMelhores(numMigrantes));
+            }
+        }
+    }
+
+    private void imigrar(int ilha) {
+        Queue<Cromossomo> caixa = caixasDeEntrada.get(ilha);
+        Cromossomo migrante;
+        while ((migrante = caixa.poll()) != null) {
+            ilhas[ilha].receberImigrante(migrante);
+        }
+    }
+
+    Cromossomo getMelhor() {
+        Cromossomo melhor = ilhas[0].getMelhor();
+        for (MotorGeracional motor : ilhas) {
+            if (motor.getMelhor().getFitness() > melhor.getFitness()) {
+                melhor = motor.getMelhor();
+            }
+        }
+        return melhor;
+    }
+
+    Cromossomo getPior() {
+        Cromossomo pior = ilhas[0].getPior();
+        for (MotorGeracional motor : ilhas) {
+            if (motor.getPior().getFitness() < pior.getFitness()) {
+                pior = motor.getPior();
+            }
+        }
+        return pior;
+    }
+}
@@ -0,0 +1,190 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Motor em estado estacionário: em vez de gerações sincronizadas, cada thread
+ * do pool repete sem parar seleção, cruzamento, mutação e avaliação de um
+ * filho, que entra na população no lugar do pior de uma pequena amostra se
+ * for melhor que ele. A população é um {@link AtomicReferenceArray} de tamanho
+ * fixo e a substituição é um compareAndSet na posição: se outra thread trocou
+ * o mesmo indivíduo antes, o filho tenta outra amostra. Não há barreira entre
+ * as threads, então uma tarefa lenta não segura as outras.
+ *
+ * Os indivíduos publicados no array nunca são alterados (cada filho é um
+ * cromossomo novo), então podem ser lidos como pais enquanto outras threads
+ * fazem substituições. O melhor indivíduo só sai da população por um filho
+ * melhor que ele, o que faz as vezes da elite.
+ *
+ * Uma "geração" equivale a tantos filhos quanto o tamanho da população; ela
+ * só marca o ponto em que a thread que a completa consulta o critério de
+ * parada e exibe o progresso. Como a ordem das substituições depende do
+ * ritmo das threads, este modo não é reproduzível bit a bit.
+ */
+class MotorEstacionario {
+    private static final int AMOSTRA_SUBSTITUICAO = 4; // Candidatos a dar lugar ao filho
+    private static final int TENTATIVAS_SUBSTITUICAO = 3;
+
+    private final AlgoritmoGenetico algoritmo;
+    private final AtomicReferenceArray<Cromossomo> populacao;
+    private final ForkJoinPool pool;
+    private final int trabalhadores;
+    private final SplittableRandom rng;
+
+    private final AtomicLong nascimentos = new AtomicLong();
+    private int ultimaGeracaoFechada = -1;
+    private final LongAdder substituicoes = new LongAdder();
+    private final LongAdder colisoes = new LongAdder(); // compareAndSet perdido para outra thread
+
+    MotorEstacionario(AlgoritmoGenetico algoritmo, List<Cromossomo> populacaoInicial, SplittableRandom rng) {
+        this.algoritmo = algoritmo;
+        this.pool = algoritmo.executor;
+        this.trabalhadores = algoritmo.paralelismo;
+        this.rng = rng;
+        Cromossomo[] inicial = populacaoInicial.toArray(new Cromossomo[0]);
+        pool.submit(() -> algoritmo.avaliar(inicial, 0, inicial.length)).join();
+        this.populacao = new AtomicReferenceArray<>(inicial);
+    }
+
+    /**
+     * Evolui com uma tarefa por núcleo da execução até o critério de parada, que
+     * encerra todas. A melhor solução é publicada em {@code melhor} a cada
+     * filho que a supera.
+     */
+    void evoluir(CriterioParada criterio, MelhorSolucao melhor) {
+        for (int i = 0; i < populacao.length(); i++) {
+            melhor.oferecer(populacao.get(i));
+        }
+        List<ForkJoinTask<?>> tarefas = new ArrayList<>(trabalhadores);
+        for (int i = 0; i < trabalhadores; i++) {
+            SplittableRandom rngTrabalhador = rng.split();
+            tarefas.add(pool.submit(() -> trabalhar(rngTrabalhador, criterio, melhor)));
+        }
+        for (ForkJoinTask<?> tarefa : tarefas) {
+            tarefa.join();
+        }
+    }
+
+    private void trabalhar(SplittableRandom random, CriterioParada criterio, MelhorSolucao melhor) {
+        int tamanho = populacao.length();
+        while (!criterio.parou()) {
+            Cromossomo pai1 = selecionarPorTorneio(random);
+            Cromossomo pai2 = selecionarPorTorneio(random);
+            Cromossomo filho = new Cromossomo(new long[algoritmo.problema.numDisciplinas]);
+            algoritmo.cruzar(pai1, pai2, filho, random);
+            algoritmo.fazerMutacao(filho, random);
+            algoritmo.avaliar(filho);
+
+            if (substituir(filho, random)) {
+                melhor.oferecer(filho);
+            }
+
+            long nascidos = nascimentos.incrementAndGet();
+            if (nascidos % tamanho == 0) {
+                fecharGeracao((int) (nascidos / tamanho) - 1, criterio, melhor);
+            }
+        }
+    }
+
+    private Cromossomo selecionarPorTorneio(SplittableRandom random) {
+        Cromossomo melhor = null;
+        for (int i = 0; i < algoritmo.tamanhoTorneio; i++) {
+            Cromossomo candidato = populacao.get(random.nextInt(populacao.length()));
+            if (melhor == null || candidato.getFitness() > melhor.getFitness()) {
+                melhor = candidato;
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * Coloca o filho no lugar do pior de uma amostra, se for melhor que ele e
+     * não for uma cópia dele. Se outra thread substituir o mesmo indivíduo
+     * primeiro, tenta uma nova amostra.
+     */
+    private boolean substituir(Cromossomo filho, SplittableRandom random) {
+        for (int tentativa = 0; tentativa < TENTATIVAS_SUBSTITUICAO; tentativa++) {
+            int posicao = -1;
+            Cromossomo pior = null;
+            for (int i = 0; i < AMOSTRA_SUBSTITUICAO; i++) {
+                int candidata = random.nextInt(populacao.length());
+                Cromossomo individuo = populacao.get(candidata);
+                if (pior == null || individuo.getFitness() < pior.getFitness()) {
+                    pior = individuo;
+                    posicao = candidata;
+                }
+            }
+            if (filho.getFitness() <= pior.getFitness() || filho.getHash() == pior.getHash()) {
+                return false;
+            }
+            if (populacao.compareAndSet(posicao, pior, filho)) {
+                substituicoes.increment();
+                return true;
+            }
+            colisoes.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Fechamentos chegam fora de ordem quando uma thread é preemptada entre
+     * contar o filho e fechar a geração: só vale o mais recente, e nada depois
+     * que a busca foi encerrada.
+     */
+    private synchronized void fecharGeracao(int geracao, CriterioParada criterio, MelhorSolucao melhor) {
+        if (criterio.parou() || geracao <= ultimaGeracaoFechada) {
+            return;
+        }
+        ultimaGeracaoFechada = geracao;
+        boolean parar = criterio.deveParar(geracao, melhor.obter().getFitness());
+        if (geracao % 10 == 0 || parar) {
+            double melhorFitness = getMelhor().getFitness();
+            double piorFitness = getPior().getFitness();
+            algoritmo.saida.printf("Geração %3d - Melhor: %.2f | Pior: %.2f | Diversidade do Fitness: %.2f%n",
+                    geracao, melhorFitness, piorFitness, melhorFitness - piorFitness);
+        }
+    }
+
+    Cromossomo getMelhor() {
+        Cromossomo melhor = populacao.get(0);
+        for (int i = 1; i < populacao.length(); i++) {
+            Cromossomo individuo = populacao.get(i);
+            if (individuo.getFitness() > melhor.getFitness()) {
+                melhor = individuo;
+            }
+        }
+        return melhor;
+    }
+
+    Cromossomo getPior() {
+        Cromossomo pior = populacao.get(0);
+        for (int i = 1; i < populacao.length(); i++) {
+            Cromossomo individuo = populacao.get(i);
+            if (individuo.getFitness() < pior.getFitness()) {
+                pior = individuo;
+            }
+        }
+        return pior;
+    }
+
+    long getNascimentos() {
+        return nascimentos.get();
+    }
+
+    long getSubstituicoes() {
+        return substituicoes.sum();
+    }
+
+    long getColisoes() {
+        return colisoes.sum();
+    }
+}
@@ -0,0 +1,511 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Motor geracional com dois buffers de população pré-alocados que se alternam
+ * a cada geração. Os filhos são escritos diretamente nos cromossomos do buffer
+ * seguinte, a produção é dividida em blocos por núcleo (fork/join) e a elite é
+ * encontrada por seleção parcial, sem ordenar a população inteira. Com
+ * busca_local ativa a elite copiada passa pela {@link BuscaLocal}, também em
+ * blocos paralelos.
+ *
+ * Com suprimir_duplicatas um índice de hashes da nova população
+ * ({@link IndiceGenotipos}) reconhece a elite e os filhos repetidos: elites
+ * repetidas cedem o lugar a filhos e filhos repetidos são mutados de novo
+ * antes da avaliação. Com compartilhamento_fitness o torneio usa o fitness
+ * dividido pelo tamanho do nicho, medido por uma distância de genes barata.
+ * Com operadores_adaptativos cada filho é produzido pelo
+ * {@link ControladorOperadores}, que escolhe cruzamento e mutação.
+ *
+ * Com pool nulo a geração roda inteira na thread chamadora (usado pelas ilhas);
+ * com pool, a geração se divide em no máximo {@code paralelismo} blocos da
+ * execução, que pode dividir o pool com outras.
+ *
+ * Os cromossomos devolvidos por {@link #getMelhor()} e {@link #getPopulacao()}
+ * pertencem aos buffers e são sobrescritos nas gerações seguintes; use
+ * {@code new Cromossomo(...)} para guardar uma cópia.
+ */
+class MotorGeracional {
+    private final AlgoritmoGenetico algoritmo;
+    private final ForkJoinPool pool;
+    private SplittableRandom rng;
+    private final int paralelismo;
+    private final int tamanhoBloco;
+
+    private Cromossomo[] atual;
+    private Cromossomo[] proxima;
+
+    // Estruturas da seleção da elite, reaproveitadas entre gerações
+    private final int[] indices;
+    private final double[] fitness;
+    private int inicioIguais; // Faixa dos iguais ao pivô na última partição
+    private int fimIguais;
+
+    private int indiceMelhor;
+    private int indicePior;
+
+    // ----- DIVERSIDADE -----
+    // Filhos repetidos são mutados de novo até TENTATIVAS_DUPLICATA vezes
+    private static final int TENTATIVAS_DUPLICATA = 3;
+    // A distância entre indivíduos compara os genes destas disciplinas, espaçadas por igual
+    private static final int POSICOES_DISTANCIA = 32;
+
+    private final IndiceGenotipos genotipos;
+    private final int[] duplicados;
+    private int genotiposUnicos;
+    private int duplicatasSuprimidas;
+    private int duplicatasRestantes;
+
+    private final ControladorOperadores controlador; // null = ponto único e mover_aula com taxas fixas
+
+    private final int[] posicoesDistancia;
+    private final long[] assinaturas; // POSICOES_DISTANCIA genes por indivíduo
+    private final double[] aptidao; // Fitness compartilhado
+
+    // Tempos da última geração (telemetria). Reprodução e avaliação somam o
+    // tempo de todas as threads; geração e seleção são tempo de relógio.
+    private long nanosGeracao;
+    private long nanosSelecao;
+    private long nanosBuscaLocal;
+    private final LongAdder nanosReproducao = new LongAdder();
+    private final LongAdder nanosAvaliacao = new LongAdder();
+
+    MotorGeracional(AlgoritmoGenetico algoritmo, List<Cromossomo> populacaoInicial, ForkJoinPool pool,
+            SplittableRandom rng) {
+        int tamanho = populacaoInicial.size();
+        this.algoritmo = algoritmo;
+        this.pool = pool;
+        this.rng = rng;
+        this.paralelismo = pool == null ? 1 : algoritmo.paralelismo;
+        this.tamanhoBloco = Math.max(1, (tamanho + paralelismo - 1) / paralelismo);
+        this.atual = populacaoInicial.toArray(new Cromossomo[0]);
+        this.proxima = new Cromossomo[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            proxima[i] = new Cromossomo(new long[algoritmo.problema.numDisciplinas]);
+        }
+        this.indices = new int[tamanho];
+        this.fitness = new double[tamanho];
+        this.controlador = algoritmo.operadoresAdaptativos ? new ControladorOperadores(algoritmo, tamanho) : null;
+        this.genotipos = new IndiceGenotipos(tamanho);
+        this.duplicados = new int[tamanho];
+
+        int numDisciplinas = algoritmo.problema.numDisciplinas;
+        this.posicoesDistancia = new int[Math.min(POSICOES_DISTANCIA, numDisciplinas)];
+        for (int k = 0; k < posicoesDistancia.length; k++) {
+            posicoesDistancia[k] = (int) ((long) k * numDisciplinas / posicoesDistancia.length);
+        }
+        this.assinaturas = algoritmo.compartilhamentoFitness ? new long[tamanho * posicoesDistancia.length] : null;
+        this.aptidao = algoritmo.compartilhamentoFitness ? new double[tamanho] : null;
+
+        // A avaliação inicial não sorteia nada: não consome o gerador, o que mantém
+        // idêntico um motor recriado a partir de um checkpoint
+        emBlocos(0, tamanho, tamanhoBloco, 0L, (inicio, fim, rngBloco) -> algoritmo.avaliar(atual, inicio, fim));
+        localizarExtremos();
+        contarGenotiposUnicos();
+    }
+
+    /** Executa uma geração: elite, reprodução em blocos e troca dos buffers. */
+    void evoluirPopulacao() {
+        long inicioGeracao = System.nanoTime();
+        nanosReproducao.reset();
+        nanosAvaliacao.reset();
+
+        // elite_size vale para populacao; populações menores (ilhas) preservam a mesma fração
+        int elite = Math.max(1, algoritmo.tamanhoElite * atual.length / algoritmo.populacao);
+        selecionarElite(elite);
+        if (algoritmo.suprimirDuplicatas) {
+            // Cópias repetidas da elite cedem o lugar a filhos
+            genotipos.limpar();
+            int distintos = 0;
+            for (int i = 0; i < elite; i++) {
+                if (genotipos.adicionar(atual[indices[i]].getHash())) {
+                    proxima[distintos++].copiarDe(atual[indices[i]]);
+                }
+            }
+            elite = distintos;
+        } else {
+            for (int i = 0; i < elite; i++) {
+                proxima[i].copiarDe(atual[indices[i]]);
+            }
+        }
+        if (algoritmo.compartilhamentoFitness) {
+            calcularFitnessCompartilhado();
+        }
+        nanosSelecao = System.nanoTime() - inicioGeracao;
+
+        if (algoritmo.buscaLocal) {
+            // A elite é pequena: blocos próprios, para que ela também se divida entre as threads
+            long inicioBusca = System.nanoTime();
+            Cromossomo[] elitistas = proxima;
+            emBlocos(0, elite, (elite + paralelismo - 1) / paralelismo, rng.nextLong(), (inicio, fim, rngBloco) -> {
+                BuscaLocal busca = algoritmo.buscaLocalPorThread.get();
+                for (int i = inicio; i < fim; i++) {
+                    busca.melhorar(elitistas[i], algoritmo.passosBuscaLocal, rngBloco);
+                }
+            });
+            nanosBuscaLocal = System.nanoTime() - inicioBusca;
+        }
+
+        Cromossomo[] pais = atual;
+        Cromossomo[] filhos = proxima;
+        boolean avaliarNoBloco = !algoritmo.suprimirDuplicatas;
+        emBlocos(elite, filhos.length, tamanhoBloco, rng.nextLong(), (inicio, fim, rngBloco) -> {
+            // Primeiro todos os filhos do bloco, depois a avaliação do bloco inteiro
+            long t0 = System.nanoTime();
+            for (int i = inicio; i < fim; i++) {
+                Cromossomo pai1 = selecionarPai(pais, rngBloco);
+                Cromossomo pai2 = selecionarPai(pais, rngBloco);
+                if (controlador != null) {
+                    controlador.reproduzir(i, pai1, pai2, filhos[i], rngBloco);
+                } else {
+                    algoritmo.cruzar(pai1, pai2, filhos[i], rngBloco);
+                    algoritmo.fazerMutacao(filhos[i], rngBloco);
+                }
+            }
+            long t1 = System.nanoTime();
+            nanosReproducao.add(t1 - t0);
+            if (avaliarNoBloco) {
+                algoritmo.avaliar(filhos, inicio, fim);
+                long nanos = System.nanoTime() - t1;
+                nanosAvaliacao.add(nanos);
+                if (controlador != null) {
+                    controlador.registrarAvaliacao(inicio, fim, nanos);
+                }
+            }
+        });
+
+        if (algoritmo.suprimirDuplicatas) {
+            suprimirDuplicatas(filhos, elite);
+            emBlocos(elite, filhos.length, tamanhoBloco, 0L, (inicio, fim, rngBloco) -> {
+                long t0 = System.nanoTime();
+                algoritmo.avaliar(filhos, inicio, fim);
+                long nanos = System.nanoTime() - t0;
+                nanosAvaliacao.add(nanos);
+                if (controlador != null) {
+                    controlador.registrarAvaliacao(inicio, fim, nanos);
+                }
+            });
+        }
+        if (controlador != null) {
+            controlador.atualizar(filhos, elite, filhos.length);
+        }
+
+        proxima = atual;
+        atual = filhos;
+        localizarExtremos();
+        contarGenotiposUnicos();
+        nanosGeracao = System.nanoTime() - inicioGeracao;
+    }
+
+    /**
+     * Troca o gerador do motor por um novo, criado a partir de uma semente
+     * sorteada do atual, e devolve essa semente. Um motor recriado com
+     * {@code new SplittableRandom(semente)} e a mesma população continua a
+     * evolução exatamente como este (usado pelo checkpoint).
+     */
+    long ressemear() {
+        long semente = rng.nextLong();
+        rng = new SplittableRandom(semente);
+        return semente;
+    }
+
+    /** Controlador dos operadores, ou null sem operadores_adaptativos. */
+    ControladorOperadores getControlador() {
+        return controlador;
+    }
+
+    /** Genótipos distintos na população atual. */
+    int getGenotiposUnicos() {
+        return genotiposUnicos;
+    }
+
+    /** Filhos repetidos que a última geração tornou únicos com uma nova mutação. */
+    int getDuplicatasSuprimidas() {
+        return duplicatasSuprimidas;
+    }
+
+    /** Filhos que continuaram repetidos depois de todas as tentativas. */
+    int getDuplicatasRestantes() {
+        return duplicatasRestantes;
+    }
+
+    long getNanosGeracao() {
+        return nanosGeracao;
+    }
+
+    long getNanosSelecao() {
+        return nanosSelecao;
+    }
+
+    long getNanosBuscaLocal() {
+        return nanosBuscaLocal;
+    }
+
+    long getNanosReproducao() {
+        return nanosReproducao.sum();
+    }
+
+    long getNanosAvaliacao() {
+        return nanosAvaliacao.sum();
+    }
+
+    Cromossomo getMelhor() {
+        return atual[indiceMelhor];
+    }
+
+    Cromossomo getPior() {
+        return atual[indicePior];
+    }
+
+    Cromossomo[] getPopulacao() {
+        return atual;
+    }
+
+    /** Cópias independentes dos melhores indivíduos (ex.: migrantes). */
+    List<Cromossomo> copiarMelhores(int quantidade) {
+        int k = Math.min(quantidade, atual.length);
+        selecionarElite(k);
+        List<Cromossomo> copias = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            copias.add(new Cromossomo(atual[indices[i]]));
+        }
+        return copias;
+    }
+
+    /** Substitui o pior indivíduo atual pelo imigrante, se este for melhor. */
+    void receberImigrante(Cromossomo imigrante) {
+        if (algoritmo.avaliar(imigrante).getFitness() > atual[indicePior].getFitness()) {
+            atual[indicePior].copiarDe(imigrante);
+            localizarExtremos();
+        }
+    }
+
+    // ----- DIVERSIDADE -----
+
+    private Cromossomo selecionarPai(Cromossomo[] pais, SplittableRandom random) {
+        return aptidao != null ? pais[algoritmo.selecionarPorTorneio(aptidao, random)]
+                : algoritmo.selecionarPorTorneio(pais, random);
+    }
+
+    /**
+     * Passa os filhos pelo índice de genótipos, na ordem da população; os
+     * repetidos (de outro filho ou da elite) são mutados de novo, em blocos
+     * paralelos, e voltam ao índice, até TENTATIVAS_DUPLICATA vezes.
+     */
+    private void suprimirDuplicatas(Cromossomo[] filhos, int elite) {
+        // A busca local pode ter mudado a elite: o índice recomeça pelos genótipos finais dela
+        genotipos.limpar();
+        for (int i = 0; i < elite; i++) {
+            genotipos.adicionar(filhos[i].getHash());
+        }
+        int repetidos = 0;
+        for (int i = elite; i < filhos.length; i++) {
+            if (!genotipos.adicionar(filhos[i].getHash())) {
+                duplicados[repetidos++] = i;
+            }
+        }
+        int encontrados = repetidos;
+        for (int tentativa = 0; tentativa < TENTATIVAS_DUPLICATA && repetidos > 0; tentativa++) {
+            int quantidade = repetidos;
+            emBlocos(0, quantidade, (quantidade + paralelismo - 1) / paralelismo, rng.nextLong(),
+                    (inicio, fim, rngBloco) -> {
+                        for (int k = inicio; k < fim; k++) {
+                            algoritmo.mutar(filhos[duplicados[k]], rngBloco);
+                        }
+                    });
+            repetidos = 0;
+            for (int k = 0; k < quantidade; k++) {
+                int i = duplicados[k];
+                if (!genotipos.adicionar(filhos[i].getHash())) {
+                    duplicados[repetidos++] = i;
+                }
+            }
+        }
+        duplicatasSuprimidas = encontrados - repetidos;
+        duplicatasRestantes = repetidos;
+    }
+
+    private void contarGenotiposUnicos() {
+        genotipos.limpar();
+        for (Cromossomo cromossomo : atual) {
+            genotipos.adicionar(cromossomo.getHash());
+        }
+        genotiposUnicos = genotipos.tamanho();
+    }
+
+    /**
+     * Fitness compartilhado: o fitness de cada indivíduo dividido pela soma,
+     * sobre a população, de 1 - d / raio_nicho para os vizinhos a distância d
+     * menor que o raio (ele mesmo conta 1). A distância é a fração de genes
+     * diferentes em POSICOES_DISTANCIA disciplinas fixas, comparadas a partir
+     * de uma cópia contígua desses genes; a comparação de um par para assim
+     * que ele não pode mais estar no mesmo nicho.
+     */
+    private void calcularFitnessCompartilhado() {
+        int tamanho = atual.length;
+        int posicoes = posicoesDistancia.length;
+        double raio = algoritmo.raioNicho;
+        double limite = raio * posicoes; // Diferenças a partir das quais o par não está no nicho
+        emBlocos(0, tamanho, tamanhoBloco, 0L, (inicio, fim, rngBloco) -> {
+            for (int i = inicio; i < fim; i++) {
+                for (int k = 0; k < posicoes; k++) {
+                    assinaturas[i * posicoes + k] = atual[i].getGene(posicoesDistancia[k]);
+                }
+            }
+        });
+        emBlocos(0, tamanho, tamanhoBloco, 0L, (inicio, fim, rngBloco) -> {
+            for (int i = inicio; i < fim; i++) {
+                double nicho = 0.0;
+                for (int j = 0; j < tamanho; j++) {
+                    int diferentes = 0;
+                    for (int k = 0; k < posicoes && diferentes < limite; k++) {
+                        if (assinaturas[i * posicoes + k] != assinaturas[j * posicoes + k]) {
+                            diferentes++;
+                        }
+                    }
+                    if (diferentes < limite) {
+                        nicho += 1.0 - (double) diferentes / posicoes / raio;
+                    }
+                }
+                aptidao[i] = atual[i].getFitness() / Math.max(1.0, nicho);
+            }
+        });
+    }
+
+    // ----- SELEÇÃO DA ELITE -----
+
+    /** Deixa em indices[0..k) os k melhores, em ordem decrescente de fitness. */
+    private void selecionarElite(int k) {
+        for (int i = 0; i < atual.length; i++) {
+            indices[i] = i;
+            fitness[i] = atual[i].getFitness();
+        }
+
+        // Quickselect: particiona até que os k melhores ocupem as primeiras posições.
+        // A partição em três faixas põe todos os iguais ao pivô juntos, então
+        // muitos fitness repetidos (população convergida) não degeneram em O(n²)
+        int esquerda = 0;
+        int direita = atual.length - 1;
+        while (esquerda < direita) {
+            particionar(esquerda, direita, (esquerda + direita) >>> 1);
+            if (k < inicioIguais) {
+                direita = inicioIguais - 1;
+            } else if (k > fimIguais + 1) {
+                esquerda = fimIguais + 1;
+            } else {
+                break;
+            }
+        }
+
+        // Ordenação por inserção apenas dos k escolhidos
+        for (int i = 1; i < k; i++) {
+            int indice = indices[i];
+            int j = i - 1;
+            while (j >= 0 && fitness[indices[j]] < fitness[indice]) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = indice;
+        }
+    }
+
+    /**
+     * Partição em três faixas de indices[esquerda..direita] pelo fitness do
+     * pivô: maiores, iguais em indices[inicioIguais..fimIguais] e menores.
+     */
+    private void particionar(int esquerda, int direita, int pivo) {
+        double valorPivo = fitness[indices[pivo]];
+        int maiores = esquerda;
+        int menores = direita;
+        int i = esquerda;
+        while (i <= menores) {
+            double valor = fitness[indices[i]];
+            if (valor > valorPivo) {
+                trocar(i++, maiores++);
+            } else if (valor < valorPivo) {
+                trocar(i, menores--);
+            } else {
+                i++;
+            }
+        }
+        inicioIguais = maiores;
+        fimIguais = menores;
+    }
+
+    private void trocar(int i, int j) {
+        int temporario = indices[i];
+        indices[i] = indices[j];
+        indices[j] = temporario;
+    }
+
+    private void localizarExtremos() {
+        indiceMelhor = 0;
+        indicePior = 0;
+        for (int i = 1; i < atual.length; i++) {
+            double valor = atual[i].getFitness();
+            if (valor > atual[indiceMelhor].getFitness()) {
+                indiceMelhor = i;
+            } else if (valor < atual[indicePior].getFitness()) {
+                indicePior = i;
+            }
+        }
+    }
+
+    // ----- EXECUÇÃO EM BLOCOS (FORK/JOIN) -----
+
+    interface TrabalhoBloco {
+        void executar(int inicio, int fim, SplittableRandom rng);
+    }
+
+    /**
+     * Divide [inicio, fim) em blocos de até {@code tamanho}. Cada bloco recebe um
+     * fluxo aleatório derivado da sua posição, então o resultado não depende
+     * de qual thread executa qual bloco.
+     */
+    private void emBlocos(int inicio, int fim, int tamanho, long semente, TrabalhoBloco trabalho) {
+        if (pool == null) {
+            trabalho.executar(inicio, fim, new SplittableRandom(AlgoritmoGenetico.misturar(semente + inicio)));
+            return;
+        }
+        pool.invoke(new Bloco(inicio, fim, Math.max(1, tamanho), semente, trabalho));
+    }
+
+    private final class Bloco extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int inicio;
+        private final int fim;
+        private final int tamanho;
+        private final long semente;
+        private final transient TrabalhoBloco trabalho;
+
+        Bloco(int inicio, int fim, int tamanho, long semente, TrabalhoBloco trabalho) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.tamanho = tamanho;
+            this.semente = semente;
+            this.trabalho = trabalho;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= tamanho) {
+                trabalho.executar(inicio, fim, new SplittableRandom(AlgoritmoGenetico.misturar(semente + inicio)));
+                return;
+            }
+            int meio = inicio + ((fim - inicio) / tamanho / 2) * tamanho;
+            if (meio == inicio) {
+                meio = inicio + tamanho;
+            }
+            invokeAll(new Bloco(inicio, meio, tamanho, semente, trabalho), new Bloco(meio, fim, tamanho, semente, trabalho));
+        }
+    }
+}
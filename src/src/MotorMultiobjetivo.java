@@ -0,0 +1,375 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Motor multiobjetivo (NSGA-II). Em vez do fitness ponderado (0,4 alojamento
+ * + 0,3 distribuição + 0,3 conflitos), os três componentes são objetivos
+ * separados e a sobrevivência é decidida pela frente de Pareto e pela
+ * distância de aglomeração, então uma execução produz a frente inteira de
+ * compromissos em vez de uma solução por conjunto de pesos.
+ *
+ * Pais e filhos ficam em um único arranjo de 2N cromossomos: a cada geração
+ * os N sobreviventes passam a ser os pais e as posições dos demais recebem os
+ * filhos seguintes, sem cópias. A contagem de dominação, a parte quadrática
+ * da ordenação não dominada, é dividida entre as threads: cada indivíduo
+ * conta quem o domina e lista quem ele domina, escrevendo só na sua linha.
+ * Cada filho tem o seu fluxo aleatório, derivado da posição, então o
+ * resultado não depende do número de threads.
+ *
+ * Os operadores do motor geracional nunca mudam quais disciplinas têm aula,
+ * e sem isso não há compromisso entre alojamento e conflitos a explorar:
+ * aqui cada filho também pode, com a taxa de mutação, perder uma aula ou
+ * ganhar uma para uma disciplina sem aula.
+ */
+final class MotorMultiobjetivo {
+    // Objetivos, todos a maximizar: aulas alocadas, horários usados e -conflitos
+    static final int ALOJAMENTO = 0;
+    static final int DISTRIBUICAO = 1;
+    static final int CONFLITOS = 2;
+    static final int NUM_OBJETIVOS = 3;
+
+    private final AlgoritmoGenetico algoritmo;
+    private final SplittableRandom rng;
+    private final int tamanho;
+
+    private final Cromossomo[] individuos; // 2N: pais e posições livres para os filhos
+    private final int[] objetivos; // NUM_OBJETIVOS valores por indivíduo
+    private int[] pais = new int[0];
+    private int[] livres = new int[0];
+
+    // Ordenação não dominada, reaproveitada entre gerações
+    private final int[] todos;
+    private final int[] dominadoPor;
+    private final int[][] dominados;
+    private final int[] numDominados;
+    private final int[] ordem; // Indivíduos frente a frente
+    private final int[] inicioFrente; // inicioFrente[k] = início da frente k em ordem
+    private int numFrentes;
+    private final int[] frente;
+    private final double[] aglomeracao;
+
+    private int indiceMelhor;
+
+    /** Uma solução da frente de Pareto com os seus objetivos. */
+    static final class PontoFrente {
+        final Cromossomo cromossomo;
+        final int aulas;
+        final int horariosUsados;
+        final int conflitos;
+
+        PontoFrente(Cromossomo cromossomo, int aulas, int horariosUsados, int conflitos) {
+            this.cromossomo = cromossomo;
+            this.aulas = aulas;
+            this.horariosUsados = horariosUsados;
+            this.conflitos = conflitos;
+        }
+    }
+
+    MotorMultiobjetivo(AlgoritmoGenetico algoritmo, List<Cromossomo> populacaoInicial, SplittableRandom rng) {
+        this.algoritmo = algoritmo;
+        this.rng = rng;
+        this.tamanho = populacaoInicial.size();
+
+        int total = 2 * tamanho;
+        this.individuos = new Cromossomo[total];
+        for (int i = 0; i < total; i++) {
+            individuos[i] = i < tamanho ? populacaoInicial.get(i)
+                    : new Cromossomo(new long[algoritmo.problema.numDisciplinas]);
+        }
+        this.objetivos = new int[total * NUM_OBJETIVOS];
+        this.todos = new int[total];
+        for (int i = 0; i < total; i++) {
+            todos[i] = i;
+        }
+        this.dominadoPor = new int[total];
+        this.dominados = new int[total][8];
+        this.numDominados = new int[total];
+        this.ordem = new int[total];
+        this.inicioFrente = new int[total + 1];
+        this.frente = new int[total];
+        this.aglomeracao = new double[total];
+
+        algoritmo.emParalelo(tamanho, i -> avaliar(i, null));
+        selecionarSobreviventes(Arrays.copyOf(todos, tamanho));
+    }
+
+    /** Executa uma geração: N filhos por torneio de aglomeração e seleção dos N melhores entre pais e filhos. */
+    void evoluirPopulacao() {
+        long semente = rng.nextLong();
+        algoritmo.emParalelo(tamanho, i -> {
+            SplittableRandom rngFilho = new SplittableRandom(AlgoritmoGenetico.misturar(semente + i));
+            Cromossomo filho = individuos[livres[i]];
+            algoritmo.cruzar(torneio(rngFilho), torneio(rngFilho), filho, rngFilho);
+            algoritmo.fazerMutacao(filho, rngFilho);
+            avaliar(livres[i], rngFilho);
+        });
+        selecionarSobreviventes(todos);
+    }
+
+    /** Melhor indivíduo pelo fitness ponderado (o que vai para cronograma.txt). */
+    Cromossomo getMelhor() {
+        return individuos[indiceMelhor];
+    }
+
+    /** Indivíduos da população na primeira frente. */
+    int getTamanhoFrente() {
+        int quantidade = 0;
+        for (int indice : pais) {
+            if (frente[indice] == 0) {
+                quantidade++;
+            }
+        }
+        return quantidade;
+    }
+
+    /** Frentes em que a população se divide. */
+    int getNumFrentes() {
+        int maior = 0;
+        for (int indice : pais) {
+            maior = Math.max(maior, frente[indice]);
+        }
+        return maior + 1;
+    }
+
+    /**
+     * Cópias das soluções da primeira frente, uma por combinação de objetivos,
+     * da com menos conflitos para a com mais.
+     */
+    List<PontoFrente> getFrente() {
+        List<PontoFrente> pontos = new ArrayList<>();
+        for (int indice : pais) {
+            if (frente[indice] != 0) {
+                continue;
+            }
+            int base = indice * NUM_OBJETIVOS;
+            int aulas = objetivos[base + ALOJAMENTO];
+            int horarios = objetivos[base + DISTRIBUICAO];
+            int conflitos = -objetivos[base + CONFLITOS];
+            boolean repetido = pontos.stream()
+                    .anyMatch(p -> p.aulas == aulas && p.horariosUsados == horarios && p.conflitos == conflitos);
+            if (!repetido) {
+                pontos.add(new PontoFrente(new Cromossomo(individuos[indice]), aulas, horarios, conflitos));
+            }
+        }
+        pontos.sort(Comparator.comparingInt((PontoFrente p) -> p.conflitos)
+                .thenComparingInt(p -> -p.aulas)
+                .thenComparingInt(p -> -p.horariosUsados));
+        return pontos;
+    }
+
+    // ----- AVALIAÇÃO -----
+
+    /**
+     * Avaliação completa do indivíduo: os três objetivos e o fitness
+     * ponderado. Com random, aplica antes a mutação de alojamento.
+     */
+    private void avaliar(int indice, SplittableRandom random) {
+        AvaliadorIncremental avaliador = algoritmo.avaliadorPorThread.get();
+        avaliador.carregar(individuos[indice]);
+        if (random != null && random.nextDouble() < algoritmo.taxaMutacao) {
+            mutarAlojamento(avaliador, random);
+            avaliador.escreverEm(individuos[indice]);
+        }
+        int base = indice * NUM_OBJETIVOS;
+        objetivos[base + ALOJAMENTO] = avaliador.getNumAulas();
+        objetivos[base + DISTRIBUICAO] = avaliador.getHorariosUsados();
+        objetivos[base + CONFLITOS] = -avaliador.getConflitosTotal();
+        individuos[indice].definirFitness(avaliador.getFitness());
+    }
+
+    /** Retira a aula de uma disciplina sorteada ou, se ela não tem aula, tenta alocá-la. */
+    private void mutarAlojamento(AvaliadorIncremental avaliador, SplittableRandom random) {
+        Problema problema = algoritmo.problema;
+        int disciplina = random.nextInt(problema.numDisciplinas);
+        if (avaliador.getGene(disciplina) != AlgoritmoGenetico.GENE_VAZIO) {
+            avaliador.remover(disciplina);
+            return;
+        }
+        int[] professores = problema.indice.professoresDe(disciplina);
+        if (professores.length == 0) {
+            return;
+        }
+        int professor = professores[random.nextInt(professores.length)];
+        int horario = random.nextInt(problema.numHorarios);
+        if (problema.disponibilidadeProfessor[professor][horario]) {
+            int sala = algoritmo.escolherSala(avaliador, disciplina, horario);
+            avaliador.mover(disciplina, AlgoritmoGenetico.codificarGene(professor, sala, horario));
+        }
+    }
+
+    private boolean domina(int a, int b) {
+        int baseA = a * NUM_OBJETIVOS;
+        int baseB = b * NUM_OBJETIVOS;
+        boolean melhorEmAlgum = false;
+        for (int m = 0; m < NUM_OBJETIVOS; m++) {
+            int valorA = objetivos[baseA + m];
+            int valorB = objetivos[baseB + m];
+            if (valorA < valorB) {
+                return false;
+            }
+            melhorEmAlgum |= valorA > valorB;
+        }
+        return melhorEmAlgum;
+    }
+
+    // ----- SELEÇÃO -----
+
+    /** Torneio binário: vence a frente menor e, na mesma frente, a maior aglomeração. */
+    private Cromossomo torneio(SplittableRandom random) {
+        int a = pais[random.nextInt(tamanho)];
+        int b = pais[random.nextInt(tamanho)];
+        boolean venceA = frente[a] != frente[b] ? frente[a] < frente[b] : aglomeracao[a] >= aglomeracao[b];
+        return individuos[venceA ? a : b];
+    }
+
+    /** Ordena os candidatos em frentes e fica com os N primeiros; os demais viram posições livres. */
+    private void selecionarSobreviventes(int[] candidatos) {
+        ordenarNaoDominados(candidatos);
+        algoritmo.emParalelo(numFrentes, k -> calcularAglomeracao(inicioFrente[k], inicioFrente[k + 1]));
+
+        boolean[] sobrevive = new boolean[individuos.length];
+        int escolhidos = 0;
+        int k = 0;
+        while (inicioFrente[k + 1] <= tamanho) {
+            for (int i = inicioFrente[k]; i < inicioFrente[k + 1]; i++) {
+                sobrevive[ordem[i]] = true;
+            }
+            escolhidos = inicioFrente[k + 1];
+            if (++k == numFrentes) {
+                break;
+            }
+        }
+        if (escolhidos < tamanho) {
+            // Frente que não cabe inteira: ficam os mais isolados
+            Integer[] ultima = new Integer[inicioFrente[k + 1] - inicioFrente[k]];
+            for (int i = 0; i < ultima.length; i++) {
+                ultima[i] = ordem[inicioFrente[k] + i];
+            }
+            Arrays.sort(ultima, Comparator.comparingDouble((Integer i) -> -aglomeracao[i])
+                    .thenComparingInt(i -> i));
+            for (int i = 0; escolhidos < tamanho; i++, escolhidos++) {
+                sobrevive[ultima[i]] = true;
+            }
+        }
+
+        int[] novosPais = new int[tamanho];
+        int[] novosLivres = new int[individuos.length - tamanho];
+        int p = 0;
+        int l = 0;
+        for (int i = 0; i < individuos.length; i++) {
+            if (sobrevive[i]) {
+                novosPais[p++] = i;
+            } else {
+                novosLivres[l++] = i;
+            }
+        }
+        pais = novosPais;
+        livres = novosLivres;
+
+        indiceMelhor = pais[0];
+        for (int indice : pais) {
+            if (individuos[indice].getFitness() > individuos[indiceMelhor].getFitness()) {
+                indiceMelhor = indice;
+            }
+        }
+    }
+
+    /**
+     * Ordenação não dominada rápida (Deb et al.): a contagem de dominação roda
+     * em paralelo e o descascamento das frentes, linear no número de relações
+     * de dominação, para assim que as frentes cobrem os N sobreviventes.
+     */
+    private void ordenarNaoDominados(int[] candidatos) {
+        algoritmo.emParalelo(candidatos.length, c -> {
+            int i = candidatos[c];
+            int contagem = 0;
+            int quantidade = 0;
+            int[] lista = dominados[i];
+            for (int j : candidatos) {
+                if (domina(j, i)) {
+                    contagem++;
+                } else if (domina(i, j)) {
+                    if (quantidade == lista.length) {
+                        lista = Arrays.copyOf(lista, 2 * quantidade);
+                        dominados[i] = lista;
+                    }
+                    lista[quantidade++] = j;
+                }
+            }
+            dominadoPor[i] = contagem;
+            numDominados[i] = quantidade;
+        });
+
+        int fim = 0;
+        for (int i : candidatos) {
+            if (dominadoPor[i] == 0) {
+                frente[i] = 0;
+                ordem[fim++] = i;
+            }
+        }
+        numFrentes = 0;
+        inicioFrente[0] = 0;
+        int inicio = 0;
+        while (inicio < fim) {
+            int fimFrente = fim;
+            numFrentes++;
+            inicioFrente[numFrentes] = fimFrente;
+            if (fimFrente >= tamanho) {
+                break;
+            }
+            for (int i = inicio; i < fimFrente; i++) {
+                int p = ordem[i];
+                for (int n = 0; n < numDominados[p]; n++) {
+                    int q = dominados[p][n];
+                    if (--dominadoPor[q] == 0) {
+                        frente[q] = numFrentes;
+                        ordem[fim++] = q;
+                    }
+                }
+            }
+            inicio = fimFrente;
+        }
+    }
+
+    /**
+     * Distância de aglomeração dos indivíduos de ordem[inicio, fim): soma, por
+     * objetivo, da distância normalizada entre os vizinhos. Os extremos de
+     * cada objetivo ficam com distância infinita.
+     */
+    private void calcularAglomeracao(int inicio, int fim) {
+        int quantidade = fim - inicio;
+        for (int i = inicio; i < fim; i++) {
+            aglomeracao[ordem[i]] = quantidade <= 2 ? Double.POSITIVE_INFINITY : 0.0;
+        }
+        if (quantidade <= 2) {
+            return;
+        }
+
+        // Valor do objetivo nos bits altos, indivíduo nos baixos: ordenar as chaves ordena os indivíduos
+        long[] chaves = new long[quantidade];
+        for (int m = 0; m < NUM_OBJETIVOS; m++) {
+            for (int i = 0; i < quantidade; i++) {
+                int indice = ordem[inicio + i];
+                chaves[i] = ((long) objetivos[indice * NUM_OBJETIVOS + m] << 32) | indice;
+            }
+            Arrays.sort(chaves);
+            long menor = chaves[0] >> 32;
+            long maior = chaves[quantidade - 1] >> 32;
+            aglomeracao[(int) chaves[0]] = Double.POSITIVE_INFINITY;
+            aglomeracao[(int) chaves[quantidade - 1]] = Double.POSITIVE_INFINITY;
+            if (maior == menor) {
+                continue;
+            }
+            for (int i = 1; i < quantidade - 1; i++) {
+                aglomeracao[(int) chaves[i]] += (double) ((chaves[i + 1] >> 32) - (chaves[i - 1] >> 32)) / (maior - menor);
+            }
+        }
+    }
+}
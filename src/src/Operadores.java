@@ -0,0 +1,336 @@
+package src;
+
+import java.util.SplittableRandom;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Operadores genéticos conectáveis. Um cruzamento escreve no filho recebido a
+ * partir de dois pais; uma mutação altera o estado carregado em um
+ * {@link AvaliadorIncremental}, de forma que o fitness do mutado sai do delta
+ * do movimento. O {@link ControladorOperadores} escolhe entre eles a cada
+ * filho; o motor padrão usa apenas {@link #PONTO_UNICO} e {@link MoverAula}.
+ *
+ * Os operadores não guardam estado entre chamadas e podem ser usados por
+ * várias threads ao mesmo tempo.
+ */
+final class Operadores {
+    private Operadores() {
+    }
+
+    interface Cruzamento {
+        String nome();
+
+        void cruzar(Cromossomo pai1, Cromossomo pai2, Cromossomo filho, SplittableRandom random);
+    }
+
+    interface Mutacao {
+        String nome();
+
+        /** Aplica um movimento ao estado do avaliador; false se nenhum movimento válido foi encontrado. */
+        boolean mutar(AvaliadorIncremental avaliador, SplittableRandom random);
+    }
+
+    // ----- CRUZAMENTOS -----
+
+    /** O filho é uma cópia do primeiro pai (o braço "não cruzar" do controlador). */
+    static final Cruzamento SEM_CRUZAMENTO = new Cruzamento() {
+        @Override
+        public String nome() {
+            return "sem_cruzamento";
+        }
+
+        @Override
+        public void cruzar(Cromossomo pai1, Cromossomo pai2, Cromossomo filho, SplittableRandom random) {
+            filho.copiarDe(pai1);
+        }
+    };
+
+    /** Ponto de corte na lista de disciplinas: [0, corte) do pai1, o restante do pai2. */
+    static final Cruzamento PONTO_UNICO = new Cruzamento() {
+        @Override
+        public String nome() {
+            return "ponto_unico";
+        }
+
+        @Override
+        public void cruzar(Cromossomo pai1, Cromossomo pai2, Cromossomo filho, SplittableRandom random) {
+            filho.cruzarEmPonto(pai1, pai2, random.nextInt(filho.getNumGenes()));
+        }
+    };
+
+    /** Cada disciplina vem de um dos pais, sorteado por disciplina. */
+    static final Cruzamento UNIFORME = new Cruzamento() {
+        @Override
+        public String nome() {
+            return "uniforme";
+        }
+
+        @Override
+        public void cruzar(Cromossomo pai1, Cromossomo pai2, Cromossomo filho, SplittableRandom random) {
+            filho.escreverGenes(d -> random.nextBoolean() ? pai1.getGene(d) : pai2.getGene(d));
+        }
+    };
+
+    /**
+     * Preserva horários: uma faixa contígua de horários vem inteira do pai2
+     * e o resto do pai1. Toda disciplina que algum dos pais coloca na faixa
+     * fica como no pai2, então as aulas da faixa são exatamente as do pai2,
+     * já ajustadas entre si (salas, professores, alunos em comum).
+     */
+    static final class PreservaHorarios implements Cruzamento {
+        private final int numHorarios;
+
+        PreservaHorarios(Problema problema) {
+            this.numHorarios = problema.numHorarios;
+        }
+
+        @Override
+        public String nome() {
+            return "preserva_horarios";
+        }
+
+        @Override
+        public void cruzar(Cromossomo pai1, Cromossomo pai2, Cromossomo filho, SplittableRandom random) {
+            int inicio = random.nextInt(numHorarios);
+            int largura = 1 + random.nextInt(Math.max(1, numHorarios / 2));
+            filho.escreverGenes(d -> naFaixa(pai1.getGene(d), inicio, largura) || naFaixa(pai2.getGene(d), inicio, largura)
+                    ? pai2.getGene(d) : pai1.getGene(d));
+        }
+
+        /** Faixa circular [inicio, inicio + largura) dos horários. */
+        private boolean naFaixa(long gene, int inicio, int largura) {
+            if (gene == AlgoritmoGenetico.GENE_VAZIO) {
+                return false;
+            }
+            int deslocamento = AlgoritmoGenetico.horarioDo(gene) - inicio;
+            return (deslocamento < 0 ? deslocamento + numHorarios : deslocamento) < largura;
+        }
+    }
+
+    // ----- MUTAÇÕES -----
+
+    /** Não muda nada (o braço "não mutar" do controlador). */
+    static final Mutacao SEM_MUTACAO = new Mutacao() {
+        @Override
+        public String nome() {
+            return "sem_mutacao";
+        }
+
+        @Override
+        public boolean mutar(AvaliadorIncremental avaliador, SplittableRandom random) {
+            return false;
+        }
+    };
+
+    /** Base das mutações: acesso ao problema e sorteio de uma aula alocada. */
+    abstract static class MutacaoAula implements Mutacao {
+        final AlgoritmoGenetico algoritmo;
+        final Problema problema;
+
+        MutacaoAula(AlgoritmoGenetico algoritmo) {
+            this.algoritmo = algoritmo;
+            this.problema = algoritmo.problema;
+        }
+
+        /** Disciplina alocada sorteada (avança até a próxima com gene); -1 se não há aulas. */
+        int sortearAula(AvaliadorIncremental avaliador, SplittableRandom random) {
+            if (avaliador.getNumAulas() == 0) {
+                return -1;
+            }
+            int numDisciplinas = problema.numDisciplinas;
+            int disciplina = random.nextInt(numDisciplinas);
+            while (avaliador.getGene(disciplina) == AlgoritmoGenetico.GENE_VAZIO) {
+                disciplina = (disciplina + 1) % numDisciplinas;
+            }
+            return disciplina;
+        }
+    }
+
+    /** Move uma aula sorteada para outra sala/horário, com o mesmo professor (a mutação original). */
+    static final class MoverAula extends MutacaoAula {
+        MoverAula(AlgoritmoGenetico algoritmo) {
+            super(algoritmo);
+        }
+
+        @Override
+        public String nome() {
+            return "mover_aula";
+        }
+
+        @Override
+        public boolean mutar(AvaliadorIncremental avaliador, SplittableRandom random) {
+            int disciplina = sortearAula(avaliador, random);
+            if (disciplina < 0) {
+                return false;
+            }
+            int professor = AlgoritmoGenetico.professorDo(avaliador.getGene(disciplina));
+
+            // Tentar mutar para um estado válido
+            for (int tentativa = 0; tentativa < 5; tentativa++) {
+                int novoHorario = random.nextInt(problema.numHorarios);
+                int novaSala = random.nextInt(problema.numSalas);
+
+                if (problema.disponibilidadeProfessor[professor][novoHorario]) {
+                    avaliador.mover(disciplina, AlgoritmoGenetico.codificarGene(professor, novaSala, novoHorario));
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Troca os horários de duas aulas, mantendo salas e professores. */
+    static final class TrocarHorarios extends MutacaoAula {
+        TrocarHorarios(AlgoritmoGenetico algoritmo) {
+            super(algoritmo);
+        }
+
+        @Override
+        public String nome() {
+            return "trocar_horarios";
+        }
+
+        @Override
+        public boolean mutar(AvaliadorIncremental avaliador, SplittableRandom random) {
+            int a = sortearAula(avaliador, random);
+            int b = sortearAula(avaliador, random);
+            if (a < 0 || a == b) {
+                return false;
+            }
+            long geneA = avaliador.getGene(a);
+            long geneB = avaliador.getGene(b);
+            int professorA = AlgoritmoGenetico.professorDo(geneA);
+            int professorB = AlgoritmoGenetico.professorDo(geneB);
+            int horarioA = AlgoritmoGenetico.horarioDo(geneA);
+            int horarioB = AlgoritmoGenetico.horarioDo(geneB);
+            if (horarioA == horarioB || !problema.disponibilidadeProfessor[professorA][horarioB]
+                    || !problema.disponibilidadeProfessor[professorB][horarioA]) {
+                return false;
+            }
+            avaliador.mover(a, AlgoritmoGenetico.codificarGene(professorA, AlgoritmoGenetico.salaDo(geneA), horarioB));
+            avaliador.mover(b, AlgoritmoGenetico.codificarGene(professorB, AlgoritmoGenetico.salaDo(geneB), horarioA));
+            return true;
+        }
+    }
+
+    /** Troca as salas de duas aulas, mantendo horários e professores. */
+    static final class TrocarSalas extends MutacaoAula {
+        TrocarSalas(AlgoritmoGenetico algoritmo) {
+            super(algoritmo);
+        }
+
+        @Override
+        public String nome() {
+            return "trocar_salas";
+        }
+
+        @Override
+        public boolean mutar(AvaliadorIncremental avaliador, SplittableRandom random) {
+            int a = sortearAula(avaliador, random);
+            int b = sortearAula(avaliador, random);
+            if (a < 0 || a == b) {
+                return false;
+            }
+            long geneA = avaliador.getGene(a);
+            long geneB = avaliador.getGene(b);
+            int salaA = AlgoritmoGenetico.salaDo(geneA);
+            int salaB = AlgoritmoGenetico.salaDo(geneB);
+            if (salaA == salaB) {
+                return false;
+            }
+            avaliador.mover(a, AlgoritmoGenetico.codificarGene(AlgoritmoGenetico.professorDo(geneA), salaB,
+                    AlgoritmoGenetico.horarioDo(geneA)));
+            avaliador.mover(b, AlgoritmoGenetico.codificarGene(AlgoritmoGenetico.professorDo(geneB), salaA,
+                    AlgoritmoGenetico.horarioDo(geneB)));
+            return true;
+        }
+    }
+
+    /** Passa uma aula para outro professor habilitado e disponível no mesmo horário. */
+    static final class TrocarProfessor extends MutacaoAula {
+        TrocarProfessor(AlgoritmoGenetico algoritmo) {
+            super(algoritmo);
+        }
+
+        @Override
+        public String nome() {
+            return "trocar_professor";
+        }
+
+        @Override
+        public boolean mutar(AvaliadorIncremental avaliador, SplittableRandom random) {
+            int disciplina = sortearAula(avaliador, random);
+            if (disciplina < 0) {
+                return false;
+            }
+            int[] professores = problema.indice.professoresDe(disciplina);
+            long gene = avaliador.getGene(disciplina);
+            // Uma aula vinda da reprogramação pode ter perdido todos os professores habilitados
+            if (professores.length == 0
+                    || professores.length == 1 && professores[0] == AlgoritmoGenetico.professorDo(gene)) {
+                return false;
+            }
+            int horario = AlgoritmoGenetico.horarioDo(gene);
+            for (int tentativa = 0; tentativa < 5; tentativa++) {
+                int professor = professores[random.nextInt(professores.length)];
+                if (professor != AlgoritmoGenetico.professorDo(gene) && problema.disponibilidadeProfessor[professor][horario]) {
+                    avaliador.mover(disciplina, AlgoritmoGenetico.codificarGene(professor, AlgoritmoGenetico.salaDo(gene), horario));
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Retira uma aula e a reinsere na melhor de algumas posições sorteadas
+     * (professor e horário viáveis, com a menor sala livre que comporta a
+     * turma), ou onde estava, se nenhuma for melhor. Também aloca disciplinas
+     * sem aula: a sorteada pode ser qualquer uma.
+     */
+    static final class RemoverReinserir extends MutacaoAula {
+        private static final int CANDIDATOS = 8;
+
+        RemoverReinserir(AlgoritmoGenetico algoritmo) {
+            super(algoritmo);
+        }
+
+        @Override
+        public String nome() {
+            return "remover_reinserir";
+        }
+
+        @Override
+        public boolean mutar(AvaliadorIncremental avaliador, SplittableRandom random) {
+            int disciplina = random.nextInt(problema.numDisciplinas);
+            int[] professores = problema.indice.professoresDe(disciplina);
+            if (professores.length == 0) {
+                return false;
+            }
+            long original = avaliador.getGene(disciplina);
+            avaliador.remover(disciplina);
+
+            long melhorGene = original;
+            double melhorGanho = original == AlgoritmoGenetico.GENE_VAZIO ? 0.0 : avaliador.deltaMover(disciplina, original);
+            for (int tentativa = 0; tentativa < CANDIDATOS; tentativa++) {
+                int professor = professores[random.nextInt(professores.length)];
+                int horario = random.nextInt(problema.numHorarios);
+                if (!problema.disponibilidadeProfessor[professor][horario]) {
+                    continue;
+                }
+                long gene = AlgoritmoGenetico.codificarGene(professor, algoritmo.escolherSala(avaliador, disciplina, horario),
+                        horario);
+                double ganho = avaliador.deltaMover(disciplina, gene);
+                if (ganho > melhorGanho) {
+                    melhorGanho = ganho;
+                    melhorGene = gene;
+                }
+            }
+            if (melhorGene != AlgoritmoGenetico.GENE_VAZIO) {
+                avaliador.mover(disciplina, melhorGene);
+            }
+            return melhorGene != original;
+        }
+    }
+}
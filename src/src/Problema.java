@@ -0,0 +1,65 @@
+package src;
+
+/**
+ * Problema resolvido por uma execução do {@link AlgoritmoGenetico}: os dados
+ * da instância, o índice de restrições derivado deles e, na reprogramação, a
+ * solução anterior contra a qual as mudanças são penalizadas. Não muda depois
+ * de construído, então avaliadores de várias threads (e várias execuções)
+ * podem compartilhá-lo.
+ */
+final class Problema {
+    final Instancia instancia;
+    final int numDisciplinas;
+    final int numProfessores;
+    final int numSalas;
+    final int numHorarios;
+    final String[] nomesDisciplinas;
+    final String[] nomesProfessores;
+    final boolean[][] disponibilidadeProfessor;
+    final IndiceRestricoes indice;
+
+    // Reprogramação: null sem solução anterior; genesAnteriores também é null com penalidade 0
+    final SolucaoAnterior solucaoAnterior;
+    final long[] genesAnteriores;
+    final int penalidadeMudanca;
+
+    Problema(Instancia instancia) {
+        this(instancia, null, 0);
+    }
+
+    Problema(Instancia instancia, SolucaoAnterior solucaoAnterior, int penalidadeMudanca) {
+        this.instancia = instancia;
+        this.numDisciplinas = instancia.getNumDisciplinas();
+        this.numProfessores = instancia.getNumProfessores();
+        this.numSalas = instancia.getNumSalas();
+        this.numHorarios = instancia.numHorarios;
+        this.nomesDisciplinas = instancia.nomesDisciplinas;
+        this.nomesProfessores = instancia.nomesProfessores;
+        this.disponibilidadeProfessor = instancia.disponibilidadeProfessor;
+        this.indice = new IndiceRestricoes(numDisciplinas, numProfessores, instancia.disciplinasPorProfessor,
+                instancia.matriculas, instancia.tamanhoTurma, instancia.capacidadeSalas);
+        this.solucaoAnterior = solucaoAnterior;
+        this.genesAnteriores = solucaoAnterior == null || penalidadeMudanca <= 0 ? null : solucaoAnterior.getGenes();
+        this.penalidadeMudanca = penalidadeMudanca;
+    }
+
+    double calcularFitness(int numAulas, int horariosUsados, int conflitosTotal) {
+        // TODO: Coloquei o Fitness para variar entre 0 e 1
+
+        // 1. QUALIDADE DE ALOJAMENTO (40% do fitness)
+        double qualidadeAlojamento = (double) numAulas / numDisciplinas;
+
+        // 2. QUALIDADE DE DISTRIBUIÇÃO (30% do fitness)
+        double qualidadeDistribuicao = (double) horariosUsados / numHorarios;
+
+        // 3. PENALIZAÇÕES (30% do fitness)
+        int maxConflitos = numDisciplinas * 10; // Aumentado para refletir penalizações reais
+        double penalizacaoConflitos = Math.min(1.0, (double) conflitosTotal / maxConflitos);
+
+        // CÁLCULO FINAL DO FITNESS (0 a 1)
+        double fitness = (qualidadeAlojamento * 0.4) + (qualidadeDistribuicao * 0.3)
+                + ((1.0 - penalizacaoConflitos) * 0.3);
+
+        return Math.max(0.0, Math.min(1.0, fitness));
+    }
+}
@@ -0,0 +1,137 @@
+package src;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Protocolo binário entre as ilhas remotas ({@link IlhaRemota}) e o
+ * {@link CoordenadorIlhas}, sobre TCP. Cada mensagem é um byte de tipo
+ * seguido do conteúdo:
+ *
+ * <pre>
+ * OLA          ilha → coordenador   impressão digital da instância (long)
+ * BOAS_VINDAS  coordenador → ilha   id da ilha, número de ilhas (int, int)
+ * RECUSADA     coordenador → ilha   motivo (UTF)
+ * MIGRANTES    nos dois sentidos    quantidade (int) e os cromossomos
+ * MELHOR       ilha → coordenador   melhor cromossomo da ilha
+ * FIM          ilha → coordenador   melhor cromossomo final; a ilha parou
+ * PARAR        coordenador → ilha   pede a parada
+ * </pre>
+ *
+ * Um cromossomo é o número de disciplinas seguido, para cada disciplina, de
+ * professor + 1 (0 = sem aula), sala e horário, todos em varint: dois a
+ * quatro bytes por gene em instâncias comuns, em vez dos 8 do long. O fitness
+ * não viaja; quem recebe recalcula.
+ */
+final class ProtocoloIlhas {
+    static final byte OLA = 1;
+    static final byte BOAS_VINDAS = 2;
+    static final byte RECUSADA = 3;
+    static final byte MIGRANTES = 4;
+    static final byte MELHOR = 5;
+    static final byte FIM = 6;
+    static final byte PARAR = 7;
+
+    static final int PORTA_PADRAO = 7070;
+
+    private ProtocoloIlhas() {
+    }
+
+    /** "host:porta", "host" ou ":porta"; sem porta usa {@link #PORTA_PADRAO}. */
+    static InetSocketAddress endereco(String texto) {
+        int separador = texto.lastIndexOf(':');
+        String host = separador < 0 ? texto : texto.substring(0, separador);
+        int porta = separador < 0 ? PORTA_PADRAO : Integer.parseInt(texto.substring(separador + 1).trim());
+        return new InetSocketAddress(host.isBlank() ? "localhost" : host.trim(), porta);
+    }
+
+    // ----- CROMOSSOMOS -----
+
+    static void escreverCromossomo(DataOutputStream saida, Cromossomo cromossomo) throws IOException {
+        escreverVarint(saida, cromossomo.getNumGenes());
+        for (int d = 0; d < cromossomo.getNumGenes(); d++) {
+            long gene = cromossomo.getGene(d);
+            if (gene == AlgoritmoGenetico.GENE_VAZIO) {
+                saida.writeByte(0);
+                continue;
+            }
+            escreverVarint(saida, AlgoritmoGenetico.professorDo(gene) + 1);
+            escreverVarint(saida, AlgoritmoGenetico.salaDo(gene));
+            escreverVarint(saida, AlgoritmoGenetico.horarioDo(gene));
+        }
+    }
+
+    /** Lê um cromossomo, conferindo cada gene contra as dimensões do problema. */
+    static Cromossomo lerCromossomo(DataInputStream entrada, Problema problema) throws IOException {
+        int numDisciplinas = lerVarint(entrada);
+        if (numDisciplinas != problema.numDisciplinas) {
+            throw new IOException("cromossomo com " + numDisciplinas + " disciplinas, esperado "
+                    + problema.numDisciplinas);
+        }
+        long[] genes = new long[numDisciplinas];
+        for (int d = 0; d < numDisciplinas; d++) {
+            int professor = lerVarint(entrada) - 1;
+            if (professor < 0) {
+                genes[d] = AlgoritmoGenetico.GENE_VAZIO;
+                continue;
+            }
+            int sala = lerVarint(entrada);
+            int horario = lerVarint(entrada);
+            if (professor >= problema.numProfessores || sala >= problema.numSalas
+                    || horario >= problema.numHorarios) {
+                throw new IOException("gene fora da instância na disciplina " + d);
+            }
+            genes[d] = AlgoritmoGenetico.codificarGene(professor, sala, horario);
+        }
+        return new Cromossomo(genes);
+    }
+
+    static void escreverMigrantes(DataOutputStream saida, List<Cromossomo> migrantes) throws IOException {
+        saida.writeInt(migrantes.size());
+        for (Cromossomo migrante : migrantes) {
+            escreverCromossomo(saida, migrante);
+        }
+    }
+
+    /** Lê uma lista de migrantes; mais de maxMigrantes (a população) indica mensagem corrompida. */
+    static List<Cromossomo> lerMigrantes(DataInputStream entrada, Problema problema, int maxMigrantes)
+            throws IOException {
+        int quantidade = entrada.readInt();
+        if (quantidade < 0 || quantidade > maxMigrantes) {
+            throw new IOException("quantidade de migrantes inválida: " + quantidade);
+        }
+        List<Cromossomo> migrantes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            migrantes.add(lerCromossomo(entrada, problema));
+        }
+        return migrantes;
+    }
+
+    // ----- VARINT (7 bits por byte, bit alto = continua) -----
+
+    private static void escreverVarint(DataOutputStream saida, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            saida.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        saida.writeByte(valor);
+    }
+
+    private static int lerVarint(DataInputStream entrada) throws IOException {
+        int valor = 0;
+        for (int deslocamento = 0; deslocamento < 32; deslocamento += 7) {
+            int b = entrada.readUnsignedByte();
+            valor |= (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("varint malformado");
+    }
+}
@@ -0,0 +1,133 @@
+package src;
+
+/**
+ * Regras de penalização do fitness, as mesmas da avaliação original, em um só
+ * lugar para todos os avaliadores ({@link AvaliadorIncremental} e
+ * {@link AvaliadorLote}):
+ * - professor não habilitado para a disciplina: 6 por aula;
+ * - professor indisponível no horário: 5 por aula;
+ * - professor com outra aula no mesmo horário: 4 por aula a mais;
+ * - aluno com mais de uma aula na mesma sala/horário: 1 por aula a mais;
+ * - sala superlotada: 3 por aula que, inserida na ordem das disciplinas,
+ *   encontra a sala/horário acima da capacidade.
+ *
+ * Os alunos repetidos de uma sala/horário com três ou mais aulas são contados
+ * aluno a aluno, com carimbos: a soma dos alunos em comum de cada par contaria
+ * em dobro quem está em três aulas. Com uma ou duas aulas, o caso comum, o
+ * índice de restrições basta.
+ *
+ * Não é thread-safe (os carimbos e as partes da última célula são do
+ * avaliador): cada avaliador tem a sua instância.
+ */
+final class RegrasFitness {
+    static final int PESO_PROFESSOR_NAO_HABILITADO = 6;
+    static final int PESO_PROFESSOR_INDISPONIVEL = 5;
+    static final int PESO_PROFESSOR_OCUPADO = 4;
+    static final int PESO_SALA_SUPERLOTADA = 3;
+    static final int PESO_CONFLITO_ALUNO = 1;
+
+    private final IndiceRestricoes indice;
+    private final Matriculas matriculas;
+    private final boolean[][] disponibilidadeProfessor;
+    private final long[] genesAnteriores; // Reprogramação: null = sem solução anterior
+    private final int penalidadeMudanca;
+
+    private final int[] carimboAluno;
+    private int marca;
+
+    // Partes da última sala/horário pontuada
+    private int conflitosAlunos;
+    private int ocupacao;
+
+    RegrasFitness(Problema problema) {
+        this.indice = problema.indice;
+        this.matriculas = problema.instancia.matriculas;
+        this.disponibilidadeProfessor = problema.disponibilidadeProfessor;
+        this.genesAnteriores = problema.genesAnteriores;
+        this.penalidadeMudanca = problema.penalidadeMudanca;
+        this.carimboAluno = new int[matriculas.getNumAlunos()];
+    }
+
+    /** Professor não habilitado e professor indisponível, que só dependem da própria aula. */
+    int penalizacaoDaAula(int disciplina, int prof, int hor) {
+        int penalizacao = 0;
+        if (!indice.podeLecionar(prof, disciplina)) {
+            penalizacao += PESO_PROFESSOR_NAO_HABILITADO;
+        }
+        if (!disponibilidadeProfessor[prof][hor]) {
+            penalizacao += PESO_PROFESSOR_INDISPONIVEL;
+        }
+        return penalizacao;
+    }
+
+    /** Reprogramação: aula alocada de forma diferente da solução anterior. */
+    int penalizacaoMudanca(int disciplina, long gene) {
+        if (genesAnteriores == null) {
+            return 0;
+        }
+        long anterior = genesAnteriores[disciplina];
+        return anterior != AlgoritmoGenetico.GENE_VAZIO && anterior != gene ? penalidadeMudanca : 0;
+    }
+
+    /**
+     * Penalização de alunos e de lotação de uma sala/horário com as aulas
+     * aulas[0, quantidade), em ordem crescente de disciplina. As duas partes
+     * ficam em {@link #getConflitosAlunos()} e, com o número de alunos na
+     * sala, em {@link #getOcupacao()}.
+     */
+    int pontuarCelula(int[] aulas, int quantidade, int sala) {
+        int capacidade = indice.capacidadeSala(sala);
+        int superlotacao = 0;
+        conflitosAlunos = 0;
+        ocupacao = 0;
+        if (quantidade <= 2) {
+            for (int i = 0; i < quantidade; i++) {
+                int repetidos = i == 0 ? 0 : indice.alunosEmComum(aulas[0], aulas[1]);
+                conflitosAlunos += repetidos;
+                ocupacao += indice.tamanhoTurma(aulas[i]) - repetidos;
+                if (ocupacao > capacidade) {
+                    superlotacao += PESO_SALA_SUPERLOTADA;
+                }
+            }
+            return conflitosAlunos * PESO_CONFLITO_ALUNO + superlotacao;
+        }
+
+        int atual = proximaMarca();
+        for (int i = 0; i < quantidade; i++) {
+            int disciplina = aulas[i];
+            int repetidos = 0;
+            for (int m = matriculas.inicio(disciplina); m < matriculas.fim(disciplina); m++) {
+                int aluno = matriculas.aluno(m);
+                if (carimboAluno[aluno] == atual) {
+                    repetidos++;
+                } else {
+                    carimboAluno[aluno] = atual;
+                }
+            }
+            conflitosAlunos += repetidos;
+            ocupacao += indice.tamanhoTurma(disciplina) - repetidos;
+            if (ocupacao > capacidade) {
+                superlotacao += PESO_SALA_SUPERLOTADA;
+            }
+        }
+        return conflitosAlunos * PESO_CONFLITO_ALUNO + superlotacao;
+    }
+
+    /** Penalização dos alunos repetidos na última sala/horário pontuada. */
+    int getConflitosAlunos() {
+        return conflitosAlunos * PESO_CONFLITO_ALUNO;
+    }
+
+    /** Alunos na última sala/horário pontuada, contados uma vez cada. */
+    int getOcupacao() {
+        return ocupacao;
+    }
+
+    private int proximaMarca() {
+        if (marca == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(carimboAluno, 0);
+            marca = 0;
+        }
+        return ++marca;
+    }
+}
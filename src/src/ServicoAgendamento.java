@@ -0,0 +1,609 @@
+package src;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Serviço HTTP/JSON local que resolve várias instâncias ao mesmo tempo. Cada
+ * trabalho é uma execução própria do {@link AlgoritmoGenetico}, com a
+ * configuração do servidor sobreposta pelas chaves enviadas pelo cliente.
+ *
+ * Requisições e trabalhos rodam em threads virtuais (uma por requisição e uma
+ * por trabalho), que só esperam: a evolução roda no único {@link ForkJoinPool}
+ * do processo. Cada trabalho reserva {@code nucleos} núcleos de um semáforo
+ * justo antes de começar e divide a sua geração em no máximo esse número de
+ * blocos (ou revezamento das ilhas), então os trabalhos em execução nunca
+ * pedem mais núcleos do que o pool tem e os da fila começam na ordem de
+ * chegada.
+ *
+ * O servidor só escuta no endereço de loopback, e um trabalho não grava
+ * arquivos: as chaves de arquivos de saída são recusadas no pedido e
+ * desligadas na configuração de cada trabalho.
+ *
+ * <pre>
+ * POST   /trabalhos                 {"num_disciplinas":"300","nucleos":2,...} → {"id":"1",...}
+ * GET    /trabalhos                 todos os trabalhos
+ * GET    /trabalhos/{id}            estado, geração e melhor fitness
+ * GET    /trabalhos/{id}/progresso  uma linha JSON por geração, até o fim (NDJSON)
+ * GET    /trabalhos/{id}/cronograma melhor cronograma até agora, em texto
+ * GET    /trabalhos/{id}/log        mensagens da execução
+ * DELETE /trabalhos/{id}            cancela (a melhor solução até agora fica disponível)
+ * </pre>
+ */
+final class ServicoAgendamento {
+
+    enum Estado {
+        NA_FILA, EXECUTANDO, CONCLUIDO, FALHOU, CANCELADO
+    }
+
+    // Chaves que não fazem sentido dentro de um trabalho
+    private static final Set<String> CHAVES_PROIBIDAS = Set.of("distribuido", "porta_servico", "num_threads");
+    // Arquivos que uma execução grava: o cliente não escolhe caminhos no servidor
+    private static final Set<String> ARQUIVOS_DE_SAIDA = Set.of("metricas", "checkpoint", "frente_pareto",
+            "frente_pareto_cronogramas", "solucao_binaria", "ajuste_curvas");
+
+    private final Configuracao configuracao;
+    private final ForkJoinPool pool;
+    private final int numNucleos;
+    private final int nucleosPadrao;
+    private final Semaphore nucleosLivres;
+    private final ExecutorService threadsVirtuais = criarExecutorVirtual();
+    private final Map<String, Trabalho> trabalhos = new ConcurrentHashMap<>();
+    private final AtomicLong proximoId = new AtomicLong(1);
+
+    ServicoAgendamento(Configuracao configuracao, ForkJoinPool pool) {
+        this.configuracao = configuracao;
+        this.pool = pool;
+        this.numNucleos = pool.getParallelism();
+        this.nucleosPadrao = Math.max(1, Math.min(numNucleos, configuracao.lerInt("nucleos_por_trabalho", 1)));
+        this.nucleosLivres = new Semaphore(numNucleos, true);
+    }
+
+    /**
+     * Threads virtuais no Java 21+; o projeto compila para o Java 17, então o
+     * executor é procurado por reflexão e, sem ele, ficam threads comuns sob
+     * demanda (que também só esperam).
+     */
+    private static ExecutorService criarExecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    void iniciar(int porta) throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        servidor.createContext("/trabalhos", this::atender);
+        servidor.setExecutor(threadsVirtuais);
+        servidor.start();
+        System.out.printf("🌐 Serviço de agendamento em http://localhost:%d/trabalhos (%d núcleos, %d por trabalho)%n",
+                servidor.getAddress().getPort(), numNucleos, nucleosPadrao);
+    }
+
+    // ----- ROTAS -----
+
+    private void atender(HttpExchange troca) throws IOException {
+        try {
+            String[] partes = troca.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+            String metodo = troca.getRequestMethod();
+            // partes = ["", "trabalhos", id?, recurso?]
+            if (partes.length == 2) {
+                if ("POST".equals(metodo)) {
+                    submeter(troca);
+                } else if ("GET".equals(metodo)) {
+                    List<String> lista = new ArrayList<>();
+                    trabalhos.values().stream()
+                            .sorted((a, b) -> Long.compare(Long.parseLong(a.id), Long.parseLong(b.id)))
+                            .forEach(trabalho -> lista.add(trabalho.json()));
+                    responder(troca, 200, "[" + String.join(",", lista) + "]");
+                } else {
+                    responderErro(troca, 405, "use GET ou POST");
+                }
+                return;
+            }
+
+            Trabalho trabalho = partes.length <= 4 ? trabalhos.get(partes[2]) : null;
+            if (trabalho == null) {
+                responderErro(troca, 404, "trabalho não encontrado");
+                return;
+            }
+            String recurso = partes.length == 4 ? partes[3] : "";
+            if ("DELETE".equals(metodo) && recurso.isEmpty()) {
+                trabalho.cancelar("cancelado pelo cliente");
+                responder(troca, 200, trabalho.json());
+            } else if (!"GET".equals(metodo)) {
+                responderErro(troca, 405, "use GET ou DELETE");
+            } else if (recurso.isEmpty()) {
+                responder(troca, 200, trabalho.json());
+            } else if ("progresso".equals(recurso)) {
+                trabalho.transmitirProgresso(troca);
+            } else if ("cronograma".equals(recurso)) {
+                String cronograma = trabalho.cronograma();
+                if (cronograma == null) {
+                    responderErro(troca, 409, "nenhuma solução ainda");
+                } else {
+                    responderTexto(troca, 200, cronograma);
+                }
+            } else if ("log".equals(recurso)) {
+                responderTexto(troca, 200, trabalho.log.toString(StandardCharsets.UTF_8));
+            } else {
+                responderErro(troca, 404, "recurso desconhecido: " + recurso);
+            }
+        } catch (RuntimeException e) {
+            // A resposta pode já ter começado (progresso): nesse caso só resta fechar a troca
+            System.err.println("Erro ao atender " + troca.getRequestURI() + ": " + e.getMessage());
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void submeter(HttpExchange troca) throws IOException {
+        Map<String, String> chaves;
+        try (InputStream corpo = troca.getRequestBody()) {
+            chaves = lerObjetoJson(new String(corpo.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            responderErro(troca, 400, "JSON inválido: " + e.getMessage());
+            return;
+        }
+        for (String chave : chaves.keySet()) {
+            if (CHAVES_PROIBIDAS.contains(chave)) {
+                responderErro(troca, 400, "chave não permitida em um trabalho: " + chave);
+                return;
+            }
+            if (ARQUIVOS_DE_SAIDA.contains(chave)) {
+                responderErro(troca, 400, "trabalhos não gravam arquivos no servidor: " + chave);
+                return;
+            }
+        }
+
+        int nucleos;
+        try {
+            String pedido = chaves.remove("nucleos");
+            nucleos = pedido == null ? nucleosPadrao : Integer.parseInt(pedido.trim());
+        } catch (NumberFormatException e) {
+            responderErro(troca, 400, "nucleos deve ser um número inteiro");
+            return;
+        }
+        if (nucleos < 1 || nucleos > numNucleos) {
+            responderErro(troca, 400, "nucleos deve estar entre 1 e " + numNucleos);
+            return;
+        }
+
+        // Vazio desliga também os arquivos da configuração do servidor, que todos os trabalhos dividiriam
+        Map<String, String> sobreposicao = new HashMap<>(chaves);
+        for (String chave : ARQUIVOS_DE_SAIDA) {
+            sobreposicao.put(chave, "");
+        }
+        Trabalho trabalho = new Trabalho(Long.toString(proximoId.getAndIncrement()), configuracao.com(sobreposicao),
+                nucleos);
+        trabalhos.put(trabalho.id, trabalho);
+        threadsVirtuais.execute(trabalho::executar);
+        troca.getResponseHeaders().set("Location", "/trabalhos/" + trabalho.id);
+        responder(troca, 202, trabalho.json());
+    }
+
+    private static void responder(HttpExchange troca, int status, String json) throws IOException {
+        enviar(troca, status, "application/json; charset=utf-8", json + "\n");
+    }
+
+    private static void responderErro(HttpExchange troca, int status, String mensagem) throws IOException {
+        responder(troca, status, "{\"erro\":" + textoJson(mensagem) + "}");
+    }
+
+    private static void responderTexto(HttpExchange troca, int status, String texto) throws IOException {
+        enviar(troca, status, "text/plain; charset=utf-8", texto);
+    }
+
+    private static void enviar(HttpExchange troca, int status, String tipo, String corpo) throws IOException {
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", tipo);
+        troca.sendResponseHeaders(status, bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    // ----- TRABALHO -----
+
+    /** Um pedido de execução, do envio até o fim; o estado é protegido por {@code trava}. */
+    private final class Trabalho {
+        private final String id;
+        private final Configuracao configuracao;
+        private final int nucleos;
+        private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        private final long criadoEm = System.nanoTime();
+
+        private final ReentrantLock trava = new ReentrantLock();
+        private final Condition novaGeracao = trava.newCondition();
+        private final List<String> progresso = new ArrayList<>();
+        private Estado estado = Estado.NA_FILA;
+        private Thread thread;
+        private boolean cancelado;
+        private AlgoritmoGenetico algoritmo;
+        private CriterioParada criterio;
+        private int geracao = -1;
+        private double melhorFitness = Double.NaN;
+        private String motivo;
+        private long iniciadoEm;
+        private long terminadoEm;
+
+        Trabalho(String id, Configuracao configuracao, int nucleos) {
+            this.id = id;
+            this.configuracao = configuracao;
+            this.nucleos = nucleos;
+        }
+
+        /** Corpo da thread virtual do trabalho: espera os núcleos, evolui e devolve os núcleos. */
+        void executar() {
+            trava.lock();
+            try {
+                // Cancelado antes de a thread existir: ninguém a interromperia na fila do semáforo
+                if (cancelado) {
+                    terminar(Estado.CANCELADO, motivo);
+                    return;
+                }
+                thread = Thread.currentThread();
+            } finally {
+                trava.unlock();
+            }
+            try {
+                nucleosLivres.acquire(nucleos);
+            } catch (InterruptedException e) {
+                terminar(Estado.CANCELADO, motivo);
+                return;
+            }
+            try {
+                trava.lock();
+                try {
+                    if (cancelado) {
+                        terminar(Estado.CANCELADO, motivo);
+                        return;
+                    }
+                    estado = Estado.EXECUTANDO;
+                    iniciadoEm = System.nanoTime();
+                    Thread.interrupted(); // A interrupção só serve para tirar o trabalho da fila
+                } finally {
+                    trava.unlock();
+                }
+                evoluir();
+            } catch (RuntimeException | LinkageError e) {
+                terminar(Estado.FALHOU, e.getMessage() != null ? e.getMessage() : e.toString());
+            } finally {
+                nucleosLivres.release(nucleos);
+                terminar(Estado.FALHOU, "encerrado sem resultado"); // Só vale se nada terminou o trabalho antes
+            }
+        }
+
+        private void evoluir() {
+            PrintStream saida = new PrintStream(log, true, StandardCharsets.UTF_8);
+            AlgoritmoGenetico execucao = new AlgoritmoGenetico(configuracao, pool, nucleos, saida);
+            CriterioParada criterioExecucao = execucao.criarCriterio();
+            criterioExecucao.observar(this::registrarGeracao);
+            trava.lock();
+            try {
+                algoritmo = execucao;
+                criterio = criterioExecucao;
+                if (cancelado) {
+                    criterio.interromper(motivo);
+                }
+            } finally {
+                trava.unlock();
+            }
+
+            execucao.executar(criterioExecucao);
+            saida.printf("%n⏹️ Parada: %s%n", criterioExecucao.getMotivo());
+            terminar(cancelado ? Estado.CANCELADO : Estado.CONCLUIDO, criterioExecucao.getMotivo());
+        }
+
+        private void registrarGeracao(int numero, double melhor, boolean parar) {
+            trava.lock();
+            try {
+                geracao = Math.max(geracao, numero);
+                melhorFitness = melhor;
+                progresso.add(String.format(Locale.ROOT, "{\"geracao\":%d,\"melhor\":%.6f,\"parar\":%b}",
+                        numero, melhor, parar));
+                novaGeracao.signalAll();
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        /** Passa para um estado final, se ainda não estiver em um, e acorda quem acompanha o progresso. */
+        private void terminar(Estado estadoFinal, String motivoFinal) {
+            trava.lock();
+            try {
+                if (estado == Estado.CONCLUIDO || estado == Estado.FALHOU || estado == Estado.CANCELADO) {
+                    return;
+                }
+                estado = estadoFinal;
+                motivo = motivoFinal;
+                terminadoEm = System.nanoTime();
+                novaGeracao.signalAll();
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        void cancelar(String motivoCancelamento) {
+            trava.lock();
+            try {
+                if (cancelado || terminou()) {
+                    return;
+                }
+                cancelado = true;
+                motivo = motivoCancelamento;
+                if (criterio != null) {
+                    criterio.interromper(motivoCancelamento);
+                } else if (estado == Estado.NA_FILA && thread != null) {
+                    thread.interrupt();
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        private boolean terminou() {
+            return estado != Estado.NA_FILA && estado != Estado.EXECUTANDO;
+        }
+
+        /** Envia as linhas de progresso em partes (chunked) à medida que as gerações terminam. */
+        void transmitirProgresso(HttpExchange troca) throws IOException {
+            troca.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+            troca.sendResponseHeaders(200, 0);
+            try (OutputStream saida = troca.getResponseBody()) {
+                int enviadas = 0;
+                while (true) {
+                    List<String> novas;
+                    boolean fim;
+                    trava.lock();
+                    try {
+                        while (enviadas == progresso.size() && !terminou()) {
+                            novaGeracao.await();
+                        }
+                        novas = new ArrayList<>(progresso.subList(enviadas, progresso.size()));
+                        fim = terminou();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } finally {
+                        trava.unlock();
+                    }
+                    StringBuilder bloco = new StringBuilder();
+                    for (String linha : novas) {
+                        bloco.append(linha).append('\n');
+                    }
+                    if (fim) {
+                        bloco.append(json()).append('\n');
+                    }
+                    saida.write(bloco.toString().getBytes(StandardCharsets.UTF_8));
+                    saida.flush();
+                    enviadas += novas.size();
+                    if (fim) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // Cliente desconectou: o trabalho continua
+            }
+        }
+
+        /** Melhor cronograma até agora, no formato de cronograma.txt, ou null antes da primeira geração. */
+        String cronograma() {
+            AlgoritmoGenetico execucao;
+            trava.lock();
+            try {
+                execucao = algoritmo;
+            } finally {
+                trava.unlock();
+            }
+            Cromossomo melhor = execucao == null ? null : execucao.melhorAteAgora.obter();
+            if (melhor == null) {
+                return null;
+            }
+            StringWriter texto = new StringWriter();
+            try (PrintWriter writer = new PrintWriter(texto)) {
+                execucao.escreverCronograma(melhor, writer);
+            }
+            return texto.toString();
+        }
+
+        String json() {
+            trava.lock();
+            try {
+                Cromossomo melhor = algoritmo == null ? null : algoritmo.melhorAteAgora.obter();
+                long agora = terminou() ? terminadoEm : System.nanoTime();
+                StringBuilder json = new StringBuilder();
+                json.append("{\"id\":").append(textoJson(id))
+                        .append(",\"estado\":").append(textoJson(estado.name()))
+                        .append(",\"nucleos\":").append(nucleos)
+                        .append(",\"geracao\":").append(geracao);
+                if (!Double.isNaN(melhorFitness)) {
+                    json.append(",\"melhor\":").append(String.format(Locale.ROOT, "%.6f", melhorFitness));
+                }
+                if (melhor != null) {
+                    json.append(",\"aulas\":").append(melhor.getNumAulas())
+                            .append(",\"disciplinas\":").append(algoritmo.problema.numDisciplinas);
+                }
+                if (motivo != null) {
+                    json.append(",\"motivo\":").append(textoJson(motivo));
+                }
+                json.append(",\"espera_segundos\":").append(String.format(Locale.ROOT, "%.3f",
+                        ((iniciadoEm != 0 ? iniciadoEm : agora) - criadoEm) / 1e9));
+                if (iniciadoEm != 0) {
+                    json.append(",\"execucao_segundos\":").append(String.format(Locale.ROOT, "%.3f",
+                            (agora - iniciadoEm) / 1e9));
+                }
+                return json.append('}').toString();
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+
+    // ----- JSON -----
+    // Só o necessário: o corpo do POST é um objeto plano de chaves de configuração
+
+    static String textoJson(String texto) {
+        StringBuilder json = new StringBuilder(texto.length() + 2).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * Objeto JSON plano: valores texto, número, booleano ou null (ignorado),
+     * todos devolvidos como texto, como em config.properties.
+     */
+    static Map<String, String> lerObjetoJson(String texto) {
+        LeitorJson leitor = new LeitorJson(texto);
+        Map<String, String> chaves = new LinkedHashMap<>();
+        leitor.esperar('{');
+        if (!leitor.consumir('}')) {
+            do {
+                String chave = leitor.lerTexto();
+                leitor.esperar(':');
+                String valor = leitor.lerValor();
+                if (valor != null) {
+                    chaves.put(chave, valor);
+                }
+            } while (leitor.consumir(','));
+            leitor.esperar('}');
+        }
+        leitor.pularEspacos();
+        if (!leitor.acabou()) {
+            throw new IllegalArgumentException("conteúdo depois do objeto");
+        }
+        return chaves;
+    }
+
+    private static final class LeitorJson {
+        private final String texto;
+        private int posicao;
+
+        LeitorJson(String texto) {
+            this.texto = texto;
+        }
+
+        boolean acabou() {
+            return posicao >= texto.length();
+        }
+
+        void pularEspacos() {
+            while (!acabou() && Character.isWhitespace(texto.charAt(posicao))) {
+                posicao++;
+            }
+        }
+
+        boolean consumir(char esperado) {
+            pularEspacos();
+            if (!acabou() && texto.charAt(posicao) == esperado) {
+                posicao++;
+                return true;
+            }
+            return false;
+        }
+
+        void esperar(char esperado) {
+            if (!consumir(esperado)) {
+                throw new IllegalArgumentException("esperado '" + esperado + "' na posição " + posicao);
+            }
+        }
+
+        String lerTexto() {
+            esperar('"');
+            StringBuilder valor = new StringBuilder();
+            while (!acabou()) {
+                char c = texto.charAt(posicao++);
+                if (c == '"') {
+                    return valor.toString();
+                }
+                if (c != '\\') {
+                    valor.append(c);
+                    continue;
+                }
+                if (acabou()) {
+                    break;
+                }
+                char escape = texto.charAt(posicao++);
+                switch (escape) {
+                    case 'n' -> valor.append('\n');
+                    case 't' -> valor.append('\t');
+                    case 'r' -> valor.append('\r');
+                    case 'b' -> valor.append('\b');
+                    case 'f' -> valor.append('\f');
+                    case 'u' -> {
+                        if (posicao + 4 > texto.length()) {
+                            throw new IllegalArgumentException("escape \\u incompleto");
+                        }
+                        valor.append((char) Integer.parseInt(texto.substring(posicao, posicao + 4), 16));
+                        posicao += 4;
+                    }
+                    default -> valor.append(escape);
+                }
+            }
+            throw new IllegalArgumentException("texto sem aspas de fechamento");
+        }
+
+        /** Texto, número ou booleano como texto; null para o literal null. */
+        String lerValor() {
+            pularEspacos();
+            if (!acabou() && texto.charAt(posicao) == '"') {
+                return lerTexto();
+            }
+            int inicio = posicao;
+            while (!acabou() && ",}".indexOf(texto.charAt(posicao)) < 0
+                    && !Character.isWhitespace(texto.charAt(posicao))) {
+                posicao++;
+            }
+            String literal = texto.substring(inicio, posicao);
+            if (literal.isEmpty() || literal.startsWith("{") || literal.startsWith("[")) {
+                throw new IllegalArgumentException("valor inválido na posição " + inicio);
+            }
+            return "null".equals(literal) ? null : literal;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package src;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Solução de uma execução anterior, ponto de partida da reprogramação
+ * ({@code solucao_anterior}). Lê o cronograma.txt gravado por
+ * {@link AlgoritmoGenetico#salvarCronograma}, casando disciplinas e
+ * professores pelo nome, ou a forma binária gravada com
+ * {@code solucao_binaria}, casando pela posição. Aulas que não existem mais
+ * na instância atual (disciplina, professor, sala ou horário) ficam sem
+ * alocação e são contadas em {@link #getDescartadas()}.
+ */
+final class SolucaoAnterior {
+    private static final int MAGICO = 0x4147534C; // "AGSL"
+
+    private final long[] genes;
+    private final int descartadas;
+
+    private SolucaoAnterior(long[] genes, int descartadas) {
+        this.genes = genes;
+        this.descartadas = descartadas;
+    }
+
+    long[] getGenes() {
+        return genes;
+    }
+
+    /** Aulas da solução anterior que não cabem na instância atual. */
+    int getDescartadas() {
+        return descartadas;
+    }
+
+    /**
+     * Lê a forma binária, se o arquivo começar pelo número mágico, ou o
+     * cronograma em texto, e encaixa a solução na instância atual.
+     */
+    static SolucaoAnterior carregar(Path arquivo, Instancia instancia) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            if (lerMagico(entrada) == MAGICO) {
+                return lerBinaria(entrada, instancia);
+            }
+        }
+        // O cronograma é gravado na codificação da plataforma (PrintWriter)
+        return lerTexto(Files.readAllLines(arquivo, Charset.defaultCharset()), instancia);
+    }
+
+    /** Grava o cromossomo na forma binária: professor, sala e horário de cada disciplina (-1 = sem aula). */
+    static void salvarBinaria(Path arquivo, Cromossomo cromossomo) throws IOException {
+        try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(arquivo)))) {
+            saida.writeInt(MAGICO);
+            saida.writeInt(cromossomo.getNumGenes());
+            for (int d = 0; d < cromossomo.getNumGenes(); d++) {
+                long gene = cromossomo.getGene(d);
+                boolean vazio = gene == AlgoritmoGenetico.GENE_VAZIO;
+                saida.writeInt(vazio ? -1 : AlgoritmoGenetico.professorDo(gene));
+                saida.writeInt(vazio ? -1 : AlgoritmoGenetico.salaDo(gene));
+                saida.writeInt(vazio ? -1 : AlgoritmoGenetico.horarioDo(gene));
+            }
+        }
+    }
+
+    private static int lerMagico(InputStream entrada) throws IOException {
+        int magico = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = entrada.read();
+            if (b < 0) {
+                return 0;
+            }
+            magico = (magico << 8) | b;
+        }
+        return magico;
+    }
+
+    private static SolucaoAnterior lerBinaria(DataInputStream entrada, Instancia instancia) throws IOException {
+        int numDisciplinas = entrada.readInt();
+        long[] genes = novosGenes(instancia);
+        int descartadas = 0;
+        for (int d = 0; d < numDisciplinas; d++) {
+            int professor = entrada.readInt();
+            int sala = entrada.readInt();
+            int horario = entrada.readInt();
+            if (professor < 0) {
+                continue;
+            }
+            if (d < genes.length && cabeNaInstancia(instancia, professor, sala, horario)) {
+                genes[d] = AlgoritmoGenetico.codificarGene(professor, sala, horario);
+            } else {
+                descartadas++;
+            }
+        }
+        return new SolucaoAnterior(genes, descartadas);
+    }
+
+    /**
+     * Cronograma em texto: "=== DIA ===" abre um dia, "HH:00--HH:00:" um
+     * horário do dia e cada aula é "  Disciplina - Professor (Sala N)".
+     */
+    private static SolucaoAnterior lerTexto(List<String> linhas, Instancia instancia) {
+        Map<String, Integer> disciplinas = indicePorNome(instancia.nomesDisciplinas);
+        Map<String, Integer> professores = indicePorNome(instancia.nomesProfessores);
+        int horariosPorDia = instancia.numHorarios / instancia.numDias;
+
+        long[] genes = novosGenes(instancia);
+        int descartadas = 0;
+        int dia = -1;
+        int hora = -1;
+        for (String linha : linhas) {
+            if (linha.startsWith("=== ")) {
+                dia++;
+                hora = -1;
+            } else if (linha.matches("\\d{2}:00--\\d{2}:00:")) {
+                hora = (Integer.parseInt(linha.substring(0, 2)) - 8) / 2;
+            } else if (linha.startsWith("  ") && linha.matches(".* \\(Sala \\d+\\)") && dia >= 0 && hora >= 0) {
+                int inicioSala = linha.lastIndexOf(" (Sala ");
+                int sala = Integer.parseInt(linha.substring(inicioSala + 7, linha.length() - 1)) - 1;
+                String aula = linha.substring(2, inicioSala);
+
+                // O nome da disciplina pode conter " - ": vale a primeira divisão com nomes conhecidos
+                boolean casou = false;
+                for (int separador = aula.indexOf(" - "); separador >= 0 && !casou; separador = aula.indexOf(" - ", separador + 1)) {
+                    Integer disciplina = disciplinas.get(aula.substring(0, separador));
+                    Integer professor = professores.get(aula.substring(separador + 3));
+                    int horario = dia * horariosPorDia + hora;
+                    if (disciplina != null && professor != null && cabeNaInstancia(instancia, professor, sala, horario)
+                            && hora < horariosPorDia) {
+                        genes[disciplina] = AlgoritmoGenetico.codificarGene(professor, sala, horario);
+                        casou = true;
+                    }
+                }
+                if (!casou) {
+                    descartadas++;
+                }
+            }
+        }
+        return new SolucaoAnterior(genes, descartadas);
+    }
+
+    private static boolean cabeNaInstancia(Instancia instancia, int professor, int sala, int horario) {
+        return professor < instancia.getNumProfessores() && sala >= 0 && sala < instancia.getNumSalas()
+                && horario >= 0 && horario < instancia.numHorarios;
+    }
+
+    private static long[] novosGenes(Instancia instancia) {
+        long[] genes = new long[instancia.getNumDisciplinas()];
+        Arrays.fill(genes, AlgoritmoGenetico.GENE_VAZIO);
+        return genes;
+    }
+
+    /**
+     * Nome → índice, com cada nome como ele sai no arquivo: caracteres que a
+     * codificação da plataforma não representa viram '?' também na chave.
+     */
+    private static Map<String, Integer> indicePorNome(String[] nomes) {
+        Charset codificacao = Charset.defaultCharset();
+        Map<String, Integer> indice = new HashMap<>(nomes.length * 2);
+        for (int i = 0; i < nomes.length; i++) {
+            indice.putIfAbsent(new String(nomes[i].getBytes(codificacao), codificacao), i);
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,179 @@
+package src;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+import src.AlgoritmoGenetico.Cromossomo;
+
+/**
+ * Métricas por geração: tempos das fases do motor, taxa de acerto do cache
+ * de fitness, bytes alocados, diversidade da população e penalização do
+ * melhor indivíduo por tipo de conflito. Cada geração vira uma linha JSON no
+ * arquivo configurado e um {@link EventoGeracao} JFR; sem arquivo e sem
+ * gravação JFR nada é calculado.
+ */
+class Telemetria implements AutoCloseable {
+    private final AlgoritmoGenetico algoritmo;
+    private final PrintWriter saida;
+    private final com.sun.management.ThreadMXBean threads;
+
+    private long acertosAnteriores;
+    private long falhasAnteriores;
+    private long bytesAnteriores;
+
+    // Reaproveitado no cálculo da distância média, um lócus por vez
+    private long[] valoresLocus = new long[0];
+
+    /**
+     * @param algoritmo execução cujo cache e avaliadores são medidos
+     * @param arquivo destino do JSONL, ou null para emitir apenas os eventos
+     *                JFR; se não puder ser aberto, ficam só os eventos
+     */
+    static Telemetria abrir(AlgoritmoGenetico algoritmo, String arquivo) {
+        if (arquivo == null) {
+            return new Telemetria(algoritmo, null);
+        }
+        try {
+            return new Telemetria(algoritmo,
+                    new PrintWriter(Files.newBufferedWriter(Paths.get(arquivo), StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir arquivo de métricas: " + e.getMessage());
+            return new Telemetria(algoritmo, null);
+        }
+    }
+
+    private Telemetria(AlgoritmoGenetico algoritmo, PrintWriter saida) {
+        this.algoritmo = algoritmo;
+        this.saida = saida;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threads = bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                        ? (com.sun.management.ThreadMXBean) bean
+                        : null;
+        this.acertosAnteriores = algoritmo.fitnessCache.getAcertos();
+        this.falhasAnteriores = algoritmo.fitnessCache.getFalhas();
+        this.bytesAnteriores = bytesAlocados();
+    }
+
+    /** Registra a geração que o motor acabou de produzir. */
+    void registrar(int geracao, MotorGeracional motor) {
+        EventoGeracao evento = new EventoGeracao();
+        if (saida == null && !evento.isEnabled()) {
+            return;
+        }
+
+        long acertos = algoritmo.fitnessCache.getAcertos();
+        long falhas = algoritmo.fitnessCache.getFalhas();
+        long consultas = (acertos - acertosAnteriores) + (falhas - falhasAnteriores);
+        double taxaAcerto = consultas == 0 ? 0.0 : (double) (acertos - acertosAnteriores) / consultas;
+        acertosAnteriores = acertos;
+        falhasAnteriores = falhas;
+
+        long bytes = bytesAlocados();
+        long bytesGeracao = Math.max(0, bytes - bytesAnteriores);
+        bytesAnteriores = bytes;
+
+        Cromossomo[] populacao = motor.getPopulacao();
+        AvaliadorIncremental avaliador = algoritmo.avaliadorPorThread.get();
+        avaliador.carregar(motor.getMelhor());
+        int[] conflitos = avaliador.detalharConflitos();
+        assert Arrays.stream(conflitos).sum() == avaliador.getConflitosTotal() : "detalhamento de conflitos divergente";
+
+        evento.geracao = geracao;
+        evento.melhorFitness = motor.getMelhor().getFitness();
+        evento.piorFitness = motor.getPior().getFitness();
+        evento.tempoGeracao = motor.getNanosGeracao();
+        evento.tempoSelecao = motor.getNanosSelecao();
+        evento.tempoBuscaLocal = motor.getNanosBuscaLocal();
+        evento.tempoReproducao = motor.getNanosReproducao();
+        evento.tempoAvaliacao = motor.getNanosAvaliacao();
+        evento.taxaAcertoCache = taxaAcerto;
+        evento.bytesAlocados = bytesGeracao;
+        evento.genotiposDistintos = motor.getGenotiposUnicos();
+        evento.duplicatasSuprimidas = motor.getDuplicatasSuprimidas();
+        evento.distanciaMedia = distanciaMedia(populacao);
+        evento.conflitosProfessor = conflitos[AvaliadorIncremental.CONFLITO_PROFESSOR];
+        evento.conflitosDisponibilidade = conflitos[AvaliadorIncremental.CONFLITO_DISPONIBILIDADE];
+        evento.conflitosAluno = conflitos[AvaliadorIncremental.CONFLITO_ALUNO];
+        evento.conflitosCapacidade = conflitos[AvaliadorIncremental.CONFLITO_CAPACIDADE];
+        evento.conflitosMudanca = conflitos[AvaliadorIncremental.CONFLITO_MUDANCA];
+        evento.commit();
+
+        if (saida != null) {
+            saida.println(String.format(Locale.ROOT,
+                    "{\"geracao\":%d,\"melhor\":%.6f,\"pior\":%.6f,"
+                            + "\"tempo_geracao_ms\":%.3f,\"tempo_selecao_ms\":%.3f,\"tempo_busca_local_ms\":%.3f,"
+                            + "\"tempo_reproducao_ms\":%.3f,\"tempo_avaliacao_ms\":%.3f,"
+                            + "\"taxa_acerto_cache\":%.4f,\"bytes_alocados\":%d,"
+                            + "\"genotipos_distintos\":%d,\"duplicatas_suprimidas\":%d,\"distancia_media\":%.3f,"
+                            + "\"conflitos\":{\"professor\":%d,\"disponibilidade\":%d,\"aluno\":%d,\"capacidade\":%d,\"mudanca\":%d}}",
+                    evento.geracao, evento.melhorFitness, evento.piorFitness,
+                    evento.tempoGeracao / 1e6, evento.tempoSelecao / 1e6, evento.tempoBuscaLocal / 1e6,
+                    evento.tempoReproducao / 1e6, evento.tempoAvaliacao / 1e6,
+                    evento.taxaAcertoCache, evento.bytesAlocados,
+                    evento.genotiposDistintos, evento.duplicatasSuprimidas, evento.distanciaMedia,
+                    evento.conflitosProfessor, evento.conflitosDisponibilidade,
+                    evento.conflitosAluno, evento.conflitosCapacidade, evento.conflitosMudanca));
+        }
+    }
+
+    /** Soma dos bytes alocados pelas threads vivas (-1 se a JVM não informa). */
+    private long bytesAlocados() {
+        if (threads == null) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Distância de Hamming média entre todos os pares de indivíduos. Calculada
+     * por lócus a partir da frequência de cada gene, em O(D · N log N) em vez
+     * de comparar os N² pares.
+     */
+    double distanciaMedia(Cromossomo[] populacao) {
+        int n = populacao.length;
+        if (n < 2) {
+            return 0.0;
+        }
+        if (valoresLocus.length != n) {
+            valoresLocus = new long[n];
+        }
+        long paresIguais = 0;
+        for (int d = 0; d < algoritmo.problema.numDisciplinas; d++) {
+            for (int i = 0; i < n; i++) {
+                valoresLocus[i] = populacao[i].getGene(d);
+            }
+            Arrays.sort(valoresLocus);
+            long repeticoes = 1;
+            for (int i = 1; i <= n; i++) {
+                if (i < n && valoresLocus[i] == valoresLocus[i - 1]) {
+                    repeticoes++;
+                } else {
+                    paresIguais += repeticoes * (repeticoes - 1) / 2;
+                    repeticoes = 1;
+                }
+            }
+        }
+        long pares = (long) n * (n - 1) / 2;
+        return (double) (algoritmo.problema.numDisciplinas * pares - paresIguais) / pares;
+    }
+
+    @Override
+    public void close() {
+        if (saida != null) {
+            saida.close();
+        }
+    }
+}